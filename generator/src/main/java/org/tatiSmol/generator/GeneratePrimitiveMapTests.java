@@ -0,0 +1,36 @@
+package org.tatiSmol.generator;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requests a JUnit test class for every primitive map generated for the given key and value types.
+ * The tests are placed in the package of the annotated class and named after the map, for example
+ * IntLongMapGeneratedTest.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GeneratePrimitiveMapTests {
+    /**
+     * Returns the key types.
+     *
+     * @return the primitive types used for keys.
+     */
+    PrimitiveType[] keys();
+
+    /**
+     * Returns the value types.
+     *
+     * @return the primitive types used for values.
+     */
+    PrimitiveType[] values();
+
+    /**
+     * Returns the package of the tested maps.
+     *
+     * @return the package the maps were generated in.
+     */
+    String mapPackage() default "org.tatiSmol";
+}
@@ -0,0 +1,29 @@
+package org.tatiSmol.generator;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requests a primitive map class for every combination of the given key and value types.
+ * The classes are expanded from one template by {@link PrimitiveMapProcessor} while the annotated
+ * package is compiled, and are named after the types, for example IntLongMap.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.PACKAGE)
+public @interface GeneratePrimitiveMaps {
+    /**
+     * Returns the key types.
+     *
+     * @return the primitive types used for keys.
+     */
+    PrimitiveType[] keys();
+
+    /**
+     * Returns the value types.
+     *
+     * @return the primitive types used for values.
+     */
+    PrimitiveType[] values();
+}
@@ -0,0 +1,177 @@
+package org.tatiSmol.generator;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PrimitiveMapProcessor class expands the primitive map template into one class for every key and value
+ * type combination requested by {@link GeneratePrimitiveMaps}, and the test template into one test class
+ * for every combination requested by {@link GeneratePrimitiveMapTests}.
+ * Templates are plain Java sources with ${name} placeholders, kept as resources next to this class.
+ */
+@SupportedAnnotationTypes({
+        "org.tatiSmol.generator.GeneratePrimitiveMaps",
+        "org.tatiSmol.generator.GeneratePrimitiveMapTests"
+})
+public class PrimitiveMapProcessor extends AbstractProcessor {
+    private static final String MAP_TEMPLATE = "PrimitiveMap.java.template";
+    private static final String TEST_TEMPLATE = "PrimitiveMapTest.java.template";
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{(\\w+)}");
+
+    /**
+     * Returns the latest source version, since the templates don't depend on newer language features.
+     *
+     * @return the latest supported source version.
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * Generates the requested maps and tests.
+     *
+     * @param annotations the annotation types requested to be processed.
+     * @param roundEnv environment for information about the current round.
+     * @return true, since the annotations are claimed by this processor.
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GeneratePrimitiveMaps.class)) {
+            GeneratePrimitiveMaps request = element.getAnnotation(GeneratePrimitiveMaps.class);
+            String packageName = ((PackageElement) element).getQualifiedName().toString();
+            for (PrimitiveType key : request.keys()) {
+                for (PrimitiveType value : request.values()) {
+                    if (checkKeyType(key, element)) {
+                        Map<String, String> tokens = tokens(key, value);
+                        tokens.put("package", packageName);
+                        write(packageName, tokens.get("className"), MAP_TEMPLATE, tokens, element);
+                    }
+                }
+            }
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(GeneratePrimitiveMapTests.class)) {
+            GeneratePrimitiveMapTests request = element.getAnnotation(GeneratePrimitiveMapTests.class);
+            String packageName = processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+            for (PrimitiveType key : request.keys()) {
+                for (PrimitiveType value : request.values()) {
+                    if (checkKeyType(key, element)) {
+                        Map<String, String> tokens = tokens(key, value);
+                        String testClassName = tokens.get("className") + "GeneratedTest";
+                        tokens.put("testClassName", testClassName);
+                        tokens.put("mapPackage", request.mapPackage());
+                        tokens.put("packageDeclaration", packageName.isEmpty() ? "" : "package " + packageName + ";\n\n");
+                        write(packageName, testClassName, TEST_TEMPLATE, tokens, element);
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Reports an error on the annotated element if the type can't be used for keys.
+     *
+     * @param key the requested key type.
+     * @param element the annotated element.
+     * @return true, if the type can be used for keys.
+     */
+    private boolean checkKeyType(PrimitiveType key, Element element) {
+        if (key.supportsKeys()) {
+            return true;
+        }
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, key + " can't be used as a key type", element);
+        return false;
+    }
+
+    /**
+     * Returns the placeholder values shared by the map and the test templates.
+     *
+     * @param key the key type.
+     * @param value the value type.
+     * @return a mutable map from placeholder name to replacement.
+     */
+    private static Map<String, String> tokens(PrimitiveType key, PrimitiveType value) {
+        Map<String, String> tokens = new HashMap<>();
+        tokens.put("header", "// Generated by " + PrimitiveMapProcessor.class.getName() + ". Do not edit.");
+        tokens.put("className", key.title() + value.title() + "Map");
+        tokens.put("K", key.typeName);
+        tokens.put("V", value.typeName);
+        tokens.put("KBoxed", key.boxedName);
+        tokens.put("VBoxed", value.boxedName);
+        tokens.put("keyHash", key.keyHash);
+        tokens.put("sameValue", value.sameValue);
+        tokens.put("testKey", key.testKey);
+        return tokens;
+    }
+
+    /**
+     * Expands the template and writes it as a new source file, which is compiled in the next round.
+     *
+     * @param packageName the package of the generated class.
+     * @param className the simple name of the generated class.
+     * @param template the name of the template resource.
+     * @param tokens the placeholder values.
+     * @param origin the annotated element the file is generated for.
+     */
+    private void write(String packageName, String className, String template, Map<String, String> tokens, Element origin) {
+        String name = packageName.isEmpty() ? className : packageName + "." + className;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(name, origin).openWriter()) {
+            writer.write(expand(readTemplate(template), tokens));
+        } catch (IOException | IllegalArgumentException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Can't generate " + name + ": " + e.getMessage(), origin);
+        }
+    }
+
+    /**
+     * Replaces every placeholder of the template.
+     *
+     * @param template the template text.
+     * @param tokens the placeholder values.
+     * @return the expanded text.
+     * @throws IllegalArgumentException if the template contains an unknown placeholder.
+     */
+    static String expand(String template, Map<String, String> tokens) {
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        StringBuilder result = new StringBuilder(template.length());
+        while (matcher.find()) {
+            String replacement = tokens.get(matcher.group(1));
+            if (replacement == null) {
+                throw new IllegalArgumentException("Unknown placeholder " + matcher.group());
+            }
+            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    /**
+     * Reads a template resource.
+     *
+     * @param template the name of the template resource.
+     * @return the template text.
+     * @throws IOException if the resource is missing or can't be read.
+     */
+    private static String readTemplate(String template) throws IOException {
+        try (InputStream in = PrimitiveMapProcessor.class.getResourceAsStream(template)) {
+            if (in == null) {
+                throw new IOException("Missing template " + template);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.tatiSmol.generator;
+
+/**
+ * PrimitiveType enum lists the primitive types a generated map can use for its keys or values,
+ * together with the code fragments the templates need for each of them.
+ */
+public enum PrimitiveType {
+    INT("int", "Integer", "key", "a == b", "i * 0x9E3779B9"),
+    LONG("long", "Long", "(int) (key ^ (key >>> 32))", "a == b", "(long) i << 32"),
+    /**
+     * Can only be used for values: the key 0 marks empty slots, which does not fit -0.0 and NaN.
+     */
+    DOUBLE("double", "Double", null, "Double.doubleToLongBits(a) == Double.doubleToLongBits(b)", null);
+
+    final String typeName;
+    final String boxedName;
+    /**
+     * The int hash of a key named {@code key}, or null if the type can't be used for keys.
+     */
+    final String keyHash;
+    /**
+     * The comparison of two values named {@code a} and {@code b}.
+     */
+    final String sameValue;
+    /**
+     * The distinct non-zero key the generated tests use for an int {@code i} greater than 0, or null.
+     */
+    final String testKey;
+
+    PrimitiveType(String typeName, String boxedName, String keyHash, String sameValue, String testKey) {
+        this.typeName = typeName;
+        this.boxedName = boxedName;
+        this.keyHash = keyHash;
+        this.sameValue = sameValue;
+        this.testKey = testKey;
+    }
+
+    /**
+     * Returns the name used for this type in generated class names.
+     *
+     * @return the type name starting with a capital letter, for example "Int".
+     */
+    String title() {
+        return Character.toUpperCase(typeName.charAt(0)) + typeName.substring(1);
+    }
+
+    /**
+     * Checks if the type can be used for keys.
+     *
+     * @return true, if the type has a key hash.
+     */
+    boolean supportsKeys() {
+        return keyHash != null;
+    }
+}
@@ -0,0 +1,120 @@
+package org.tatiSmol;
+
+import java.util.Arrays;
+
+/**
+ * BlockedBloomFilter class is a Bloom filter over hash codes whose bits for a hash all lie
+ * in one block of 512 bits, the size of a cache line, so that a query reads a single block.
+ * It can't remove hashes; the owner rebuilds it instead.
+ */
+final class BlockedBloomFilter {
+    /**
+     * The number of bits in a block.
+     */
+    private static final int BLOCK_BITS = 512;
+    /**
+     * The number of longs in a block.
+     */
+    private static final int BLOCK_WORDS = BLOCK_BITS / Long.SIZE;
+    /**
+     * The number of filter bits per expected hash. With 4 bits set per hash this gives
+     * a false-positive rate of about 1.5% at the expected number of hashes.
+     */
+    private static final int BITS_PER_KEY = 10;
+    /**
+     * The number of bits set for every hash.
+     */
+    private static final int BITS_PER_HASH = 4;
+    /**
+     * The number of scrambled bits that select one bit in a block.
+     */
+    private static final int BIT_INDEX_BITS = 9;
+    private final long[] words;
+    private final int blockMask;
+
+    /**
+     * Creates an empty filter sized for the given number of hashes.
+     *
+     * @param expectedHashes the number of hashes the filter is sized for. Must be non-negative.
+     */
+    BlockedBloomFilter(int expectedHashes) {
+        long bits = Math.max((long) expectedHashes * BITS_PER_KEY, BLOCK_BITS);
+        int blocks = Hashing.tableSizeFor((int) Math.min(bits / BLOCK_BITS, Hashing.MAXIMUM_CAPACITY / BLOCK_WORDS));
+        words = new long[blocks * BLOCK_WORDS];
+        blockMask = blocks - 1;
+    }
+
+    /**
+     * Adds a hash to the filter.
+     *
+     * @param hash the hash to add.
+     */
+    void add(int hash) {
+        long bits = scramble(hash);
+        int base = blockFor(bits);
+        for (int i = 0; i < BITS_PER_HASH; i++, bits >>>= BIT_INDEX_BITS) {
+            int bit = (int) bits & (BLOCK_BITS - 1);
+            words[base + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Checks if the hash may have been added to the filter.
+     *
+     * @param hash the hash to test.
+     * @return false, if the hash has certainly not been added; true, if it may have been.
+     */
+    boolean mightContain(int hash) {
+        long bits = scramble(hash);
+        int base = blockFor(bits);
+        for (int i = 0; i < BITS_PER_HASH; i++, bits >>>= BIT_INDEX_BITS) {
+            int bit = (int) bits & (BLOCK_BITS - 1);
+            if ((words[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes all hashes from the filter.
+     */
+    void clear() {
+        Arrays.fill(words, 0);
+    }
+
+    /**
+     * Returns the number of bits of the filter.
+     *
+     * @return the number of bits.
+     */
+    long bitCount() {
+        return (long) words.length * Long.SIZE;
+    }
+
+    /**
+     * Spreads a hash over 64 bits with the SplitMix64 finalizer. The table indexes with the low
+     * bits of the hash, so the filter must not reuse them directly.
+     *
+     * @param hash the hash to scramble.
+     * @return 64 mixed bits: the low 36 select the bits in the block, the high 28 select the block.
+     */
+    private static long scramble(int hash) {
+        long z = hash * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the index of the first long of the block selected by the scrambled hash.
+     * The block is taken from the bits above the 36 used for the bits in the block, which is
+     * enough for the at most 2^27 blocks the constructor allocates.
+     *
+     * @param bits the scrambled hash.
+     * @return the index of the first long of the block.
+     */
+    private int blockFor(long bits) {
+        return ((int) (bits >>> BITS_PER_HASH * BIT_INDEX_BITS) & blockMask) * BLOCK_WORDS;
+    }
+}
@@ -0,0 +1,118 @@
+package org.tatiSmol;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codec interface converts the keys or values of an {@link OffHeapHashMap} to and from bytes.
+ * Encoding must be deterministic: keys are hashed and compared by their encoded bytes, so two keys
+ * are treated as equal exactly when they encode to the same bytes.
+ *
+ * @param <T> the type of the encoded objects.
+ */
+public interface Codec<T> {
+    /**
+     * Codec for Integer objects as four bytes.
+     */
+    Codec<Integer> INT = new Codec<>() {
+        @Override
+        public int encodedSize(Integer value) {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void encode(Integer value, ByteBuffer out) {
+            out.putInt(value);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer in) {
+            return in.getInt();
+        }
+    };
+
+    /**
+     * Codec for Long objects as eight bytes.
+     */
+    Codec<Long> LONG = new Codec<>() {
+        @Override
+        public int encodedSize(Long value) {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void encode(Long value, ByteBuffer out) {
+            out.putLong(value);
+        }
+
+        @Override
+        public Long decode(ByteBuffer in) {
+            return in.getLong();
+        }
+    };
+
+    /**
+     * Codec for String objects as UTF-8 bytes.
+     */
+    Codec<String> STRING = new Codec<>() {
+        @Override
+        public int encodedSize(String value) {
+            int size = 0;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    size++;
+                } else if (c < 0x800) {
+                    size += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    size += 4;
+                    i++;
+                } else {
+                    // Unpaired surrogates are encoded as '?' by String.getBytes().
+                    size += Character.isSurrogate(c) ? 1 : 3;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public void encode(String value, ByteBuffer out) {
+            out.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String decode(ByteBuffer in) {
+            byte[] bytes = new byte[in.remaining()];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * Returns the number of bytes {@link #encode(Object, ByteBuffer)} writes for the given object.
+     *
+     * @param value the object to encode. Never null.
+     * @return the encoded size in bytes.
+     */
+    int encodedSize(T value);
+
+    /**
+     * Writes the given object at the position of the buffer, advancing the position by exactly
+     * {@link #encodedSize(Object)} bytes.
+     *
+     * @param value the object to encode. Never null.
+     * @param out the buffer to write to.
+     */
+    void encode(T value, ByteBuffer out);
+
+    /**
+     * Reads an object from the buffer, whose remaining bytes are exactly the bytes written by
+     * {@link #encode(Object, ByteBuffer)}. The buffer views off-heap memory that may be freed later,
+     * so the decoded object must not keep a reference to it.
+     *
+     * @param in the buffer to read from.
+     * @return the decoded object.
+     */
+    T decode(ByteBuffer in);
+}
@@ -0,0 +1,703 @@
+package org.tatiSmol;
+
+import java.util.*;
+
+/**
+ * CompactHashMap class implements Map and Iterable interfaces.
+ * This is a compact, insertion-ordered alternative to CustomHashMap, laid out like the
+ * CPython dict: hashes, keys and values live in dense parallel entry arrays in insertion
+ * order, and a sparse index table maps hash slots to entry positions. The index stores
+ * bytes, shorts or ints depending on how many entries it has to address, so the only
+ * per-slot overhead of a small map is one byte instead of a Node reference.
+ * Iteration, keySet() and values() are sequential scans of the entry arrays.
+ * Null keys are not supported.
+ *
+ * @param <K> the type of keys maintained by this map.
+ * @param <V> the type of mapped values.
+ */
+public class CompactHashMap<K, V> extends AbstractMap<K, V> implements Iterable<Map.Entry<K, V>> {
+    private static final int DEFAULT_CAPACITY = 8;
+    /**
+     * The index slot value of a slot that has never been used.
+     */
+    private static final int EMPTY = -1;
+    /**
+     * The index slot value of a slot whose entry has been removed. Probing continues past it.
+     */
+    private static final int DUMMY = -2;
+    /**
+     * The number of hash bits mixed into each probe step, as in CPython.
+     */
+    private static final int PERTURB_SHIFT = 5;
+    private byte[] index8;
+    private short[] index16;
+    private int[] index32;
+    /**
+     * The width of the index slots in bytes: 1, 2 or 4.
+     */
+    private int indexBytes;
+    private int mask;
+    private int[] hashes;
+    private Object[] keys;
+    private Object[] values;
+    /**
+     * The number of entry positions in use, including removed entries whose key is null.
+     */
+    private int used = 0;
+    private int size = 0;
+    private int modCount = 0;
+    private Set<Entry<K, V>> entrySet;
+    private Set<K> keySet;
+    private Collection<V> valuesView;
+
+    /**
+     * Constructs an empty CompactHashMap with the default initial capacity (8).
+     */
+    public CompactHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty CompactHashMap with the custom initial capacity.
+     * The capacity is the number of index slots and is rounded up to the next power of two;
+     * two thirds of the slots can hold entries before the map is resized.
+     *
+     * @param initialCapacity the initial number of index slots. Must be non-negative.
+     * @throws IllegalArgumentException if capacity less than 0.
+     */
+    public CompactHashMap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity can't be negative");
+        }
+        allocate(Hashing.tableSizeFor(Math.max(initialCapacity, DEFAULT_CAPACITY)));
+    }
+
+    /**
+     * Constructs CompactHashMap large enough to hold the specified map
+     * and adds all key-value pairs from it.
+     *
+     * @param m map containing the key-value pairs that will be added to the new hash map.
+     */
+    public CompactHashMap(Map<? extends K, ? extends V> m) {
+        this((int) Math.min(m.size() * 3L / 2 + 1, Hashing.MAXIMUM_CAPACITY));
+        putAll(m);
+    }
+
+    /**
+     * Allocates an empty index of the given power-of-two number of slots, using the narrowest
+     * slot type that can address all its entries, and entry arrays for two thirds of the slots.
+     *
+     * @param slots the number of index slots.
+     */
+    private void allocate(int slots) {
+        int usable = (int) (slots * 2L / 3);
+        index8 = null;
+        index16 = null;
+        index32 = null;
+
+        if (usable <= Byte.MAX_VALUE) {
+            index8 = new byte[slots];
+            Arrays.fill(index8, (byte) EMPTY);
+            indexBytes = 1;
+        } else if (usable <= Short.MAX_VALUE) {
+            index16 = new short[slots];
+            Arrays.fill(index16, (short) EMPTY);
+            indexBytes = 2;
+        } else {
+            index32 = new int[slots];
+            Arrays.fill(index32, EMPTY);
+            indexBytes = 4;
+        }
+
+        mask = slots - 1;
+        hashes = new int[usable];
+        keys = new Object[usable];
+        values = new Object[usable];
+        used = 0;
+    }
+
+    /**
+     * Returns the value of the given index slot.
+     *
+     * @param i the index slot.
+     * @return the entry position, EMPTY or DUMMY.
+     */
+    private int indexAt(int i) {
+        return switch (indexBytes) {
+            case 1 -> index8[i];
+            case 2 -> index16[i];
+            default -> index32[i];
+        };
+    }
+
+    /**
+     * Sets the value of the given index slot.
+     *
+     * @param i the index slot.
+     * @param ix the entry position, EMPTY or DUMMY.
+     */
+    private void setIndex(int i, int ix) {
+        switch (indexBytes) {
+            case 1 -> index8[i] = (byte) ix;
+            case 2 -> index16[i] = (short) ix;
+            default -> index32[i] = ix;
+        }
+    }
+
+    /**
+     * Returns the index slot holding the given key. Slots are probed in the CPython order,
+     * which mixes more bits of the hash into every step until all of them have been used.
+     *
+     * @param key the key to look for. Must be not null.
+     * @param hash the mixed hash of the key.
+     * @return the index slot, or -1 if the map contains no mapping for the key.
+     */
+    private int lookup(Object key, int hash) {
+        int i = hash & mask;
+        int perturb = hash;
+
+        while (true) {
+            int ix = indexAt(i);
+            if (ix == EMPTY) {
+                return -1;
+            }
+            if (ix >= 0 && hashes[ix] == hash) {
+                Object k = keys[ix];
+                if (k == key || k.equals(key)) {
+                    return i;
+                }
+            }
+            perturb >>>= PERTURB_SHIFT;
+            i = (i * 5 + perturb + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the first index slot on the probe sequence of the given hash that holds no entry.
+     *
+     * @param hash the mixed hash.
+     * @return an EMPTY or DUMMY index slot.
+     */
+    private int freeSlot(int hash) {
+        int i = hash & mask;
+        int perturb = hash;
+
+        while (indexAt(i) >= 0) {
+            perturb >>>= PERTURB_SHIFT;
+            i = (i * 5 + perturb + 1) & mask;
+        }
+
+        return i;
+    }
+
+    /**
+     * Returns the entry position holding the given key.
+     *
+     * @param key the key to look for.
+     * @return the entry position, or -1 if the map contains no mapping for the key.
+     */
+    private int find(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        int i = lookup(key, Hashing.mix(key.hashCode()));
+        return i < 0 ? -1 : indexAt(i);
+    }
+
+    /**
+     * Returns the number of key-value pairs in the map.
+     *
+     * @return the number of key-value mappings in this map.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return true, if size equals 0.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if the map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested.
+     * @return true, if the map contains a mapping for the specified key.
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Checks if the map contains a mapping for the specified value, scanning the dense entry arrays.
+     *
+     * @param value value whose presence in this map is to be tested.
+     * @return true, if the map contains a mapping for the specified value.
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        Object[] ks = keys;
+        Object[] vs = values;
+
+        for (int e = 0; e < used; e++) {
+            if (ks[e] != null && Objects.equals(vs[e], value)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped.
+     *
+     * @param key the key whose associated value is to be returned.
+     * @return the value to which the specified key is mapped, or null if the map contains no mapping for the key.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int e = find(key);
+        return e < 0 ? null : (V) values[e];
+    }
+
+    /**
+     * Associates the specified value with the specified key in the map.
+     * A new key is appended to the end of the entry arrays.
+     *
+     * @param key key with which the specified value is to be associated. Must be not null.
+     * @param value value to be associated with the specified key.
+     * @return the previous value associated with the key, or null if there was no mapping for the key.
+     * @throws NullPointerException if the key is null.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Objects.requireNonNull(key, "Null keys are not supported");
+
+        int hash = Hashing.mix(key.hashCode());
+        int i = lookup(key, hash);
+        if (i >= 0) {
+            int e = indexAt(i);
+            V oldValue = (V) values[e];
+            values[e] = value;
+            return oldValue;
+        }
+
+        if (used == keys.length) {
+            resize();
+        }
+
+        setIndex(freeSlot(hash), used);
+        hashes[used] = hash;
+        keys[used] = key;
+        values[used] = value;
+        used++;
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Rebuilds the map with an index of three times as many slots as there are live entries,
+     * as CPython does. Removed entries are dropped, so the live entries become dense again;
+     * after many removals the map shrinks rather than grows.
+     */
+    private void resize() {
+        int slots = Hashing.tableSizeFor((int) Math.min(Math.max(size * 3L, DEFAULT_CAPACITY), Hashing.MAXIMUM_CAPACITY));
+        int[] oldHashes = hashes;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int oldUsed = used;
+        allocate(slots);
+
+        int e = 0;
+        for (int j = 0; j < oldUsed; j++) {
+            if (oldKeys[j] != null) {
+                hashes[e] = oldHashes[j];
+                keys[e] = oldKeys[j];
+                values[e] = oldValues[j];
+                setIndex(freeSlot(oldHashes[j]), e);
+                e++;
+            }
+        }
+        used = e;
+    }
+
+    /**
+     * Removes the mapping for the specified key from the map.
+     * The index slot becomes DUMMY and the entry is cleared in place; the next resize compacts it away.
+     *
+     * @param key key whose mapping is to be removed from the map.
+     * @return the previous value associated with the key, or null if there was no mapping for the key.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+
+        int i = lookup(key, Hashing.mix(key.hashCode()));
+        if (i < 0) {
+            return null;
+        }
+
+        int e = indexAt(i);
+        V oldValue = (V) values[e];
+        removeAt(i, e);
+        return oldValue;
+    }
+
+    /**
+     * Clears the given index slot and the entry it points to.
+     *
+     * @param i the index slot.
+     * @param e the entry position stored in the slot.
+     */
+    private void removeAt(int i, int e) {
+        setIndex(i, DUMMY);
+        keys[e] = null;
+        values[e] = null;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Removes the entry at the given position, finding its index slot by probing its hash.
+     *
+     * @param e the entry position.
+     */
+    private void removeEntry(int e) {
+        int hash = hashes[e];
+        int i = hash & mask;
+        int perturb = hash;
+
+        while (indexAt(i) != e) {
+            perturb >>>= PERTURB_SHIFT;
+            i = (i * 5 + perturb + 1) & mask;
+        }
+
+        removeAt(i, e);
+    }
+
+    /**
+     * Removes all the mappings from the map.
+     */
+    @Override
+    public void clear() {
+        if (size == 0 && used == 0) {
+            return;
+        }
+        switch (indexBytes) {
+            case 1 -> Arrays.fill(index8, (byte) EMPTY);
+            case 2 -> Arrays.fill(index16, (short) EMPTY);
+            default -> Arrays.fill(index32, EMPTY);
+        }
+        Arrays.fill(keys, 0, used, null);
+        Arrays.fill(values, 0, used, null);
+        used = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns a set view of all key-value pairs (entries) contained in this map, in insertion order.
+     * The set is backed by the map, so changes to the map are reflected in the set.
+     *
+     * @return set view of all key-value pairs contained in this map.
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> es = entrySet;
+        return es != null ? es : (entrySet = new EntrySet());
+    }
+
+    /**
+     * Returns a set view of all keys contained in this map, in insertion order.
+     * The set is backed by the map, so changes to the map are reflected in the set.
+     *
+     * @return set view of all keys contained in this map.
+     */
+    @Override
+    public Set<K> keySet() {
+        Set<K> ks = keySet;
+        return ks != null ? ks : (keySet = new KeySet());
+    }
+
+    /**
+     * Returns a collection view of all values contained in this map, in insertion order.
+     * The collection is backed by the map, so changes to the map are reflected in the collection.
+     *
+     * @return collection view of all values contained in this map.
+     */
+    @Override
+    public Collection<V> values() {
+        Collection<V> vs = valuesView;
+        return vs != null ? vs : (valuesView = new Values());
+    }
+
+    /**
+     * Returns an iterator over all key-value pairs contained in this map, in insertion order.
+     *
+     * @return an iterator over the entries in the map.
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator();
+    }
+
+    /**
+     * The EntrySet inner class is the live entry set view of the map.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e)) {
+                return false;
+            }
+            int pos = find(e.getKey());
+            return pos >= 0 && Objects.equals(values[pos], e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            CompactHashMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+            return true;
+        }
+    }
+
+    /**
+     * The KeySet inner class is the live key set view of the map.
+     */
+    private final class KeySet extends AbstractSet<K> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            int sizeBefore = size;
+            CompactHashMap.this.remove(o);
+            return size != sizeBefore;
+        }
+    }
+
+    /**
+     * The Values inner class is the live values view of the map.
+     */
+    private final class Values extends AbstractCollection<V> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+    }
+
+    /**
+     * The PositionEntry inner class is a map entry that reads and writes through to the entry
+     * position holding its key. If the key has been moved by a resize, the position is looked up again.
+     */
+    private final class PositionEntry implements Map.Entry<K, V> {
+        private final K key;
+        private int pos;
+
+        PositionEntry(K key, int pos) {
+            this.key = key;
+            this.pos = pos;
+        }
+
+        private int pos() {
+            if (pos >= used || keys[pos] != key) {
+                pos = find(key);
+                if (pos < 0) {
+                    throw new IllegalStateException("Entry is no longer in the map");
+                }
+            }
+            return pos;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return (V) values[pos()];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V setValue(V value) {
+            int e = pos();
+            V oldValue = (V) values[e];
+            values[e] = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e
+                    && key.equals(e.getKey())
+                    && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
+    /**
+     * The PositionIterator inner class walks the entry arrays from the first position up,
+     * skipping removed entries. Removing the current entry clears it in place,
+     * so no other entry moves during the walk.
+     *
+     * @param <T> the type of the returned elements.
+     */
+    private abstract class PositionIterator<T> implements Iterator<T> {
+        private int pos = 0;
+        private int remaining = size;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        /**
+         * Returns the element for the given entry position.
+         *
+         * @param e the entry position.
+         * @return the element.
+         */
+        abstract T element(int e);
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+
+            while (keys[pos] == null) {
+                pos++;
+            }
+            last = pos++;
+            return element(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            removeEntry(last);
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * The EntryIterator inner class iterates over the entries of the map.
+     */
+    private final class EntryIterator extends PositionIterator<Entry<K, V>> {
+        @Override
+        @SuppressWarnings("unchecked")
+        Entry<K, V> element(int e) {
+            return new PositionEntry((K) keys[e], e);
+        }
+    }
+
+    /**
+     * The KeyIterator inner class iterates over the keys of the map.
+     */
+    private final class KeyIterator extends PositionIterator<K> {
+        @Override
+        @SuppressWarnings("unchecked")
+        K element(int e) {
+            return (K) keys[e];
+        }
+    }
+
+    /**
+     * The ValueIterator inner class iterates over the values of the map.
+     */
+    private final class ValueIterator extends PositionIterator<V> {
+        @Override
+        @SuppressWarnings("unchecked")
+        V element(int e) {
+            return (V) values[e];
+        }
+    }
+}
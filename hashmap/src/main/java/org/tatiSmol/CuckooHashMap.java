@@ -0,0 +1,703 @@
+package org.tatiSmol;
+
+import java.util.*;
+
+/**
+ * CuckooHashMap class implements Map and Iterable interfaces.
+ * This is a bucketized cuckoo hashing alternative to CustomHashMap. Every key has two
+ * candidate buckets of four slots each, chosen by two hash functions, and always lives in
+ * one of them or in a small stash. A lookup therefore reads at most two buckets (plus the
+ * stash when it is not empty), whatever the keys are. An insertion into two full buckets
+ * evicts an entry to its other bucket, and so on; if the eviction walk does not end and the
+ * stash is full, the table is rehashed with a new second hash function. Null keys are not supported.
+ *
+ * @param <K> the type of keys maintained by this map.
+ * @param <V> the type of mapped values.
+ */
+public class CuckooHashMap<K, V> extends AbstractMap<K, V> implements Iterable<Map.Entry<K, V>> {
+    private static final int BUCKET_SIZE = 4;
+    private static final int STASH_SIZE = 4;
+    private static final int MAX_KICKS = 256;
+    private static final int REHASH_ATTEMPTS = 3;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.9f;
+    private Object[] keys;
+    private Object[] values;
+    private int[] hashes;
+    private Object[] stashKeys = new Object[STASH_SIZE];
+    private Object[] stashValues = new Object[STASH_SIZE];
+    private int[] stashHashes = new int[STASH_SIZE];
+    private int stashSize = 0;
+    private int mask;
+    private int maxFill;
+    private int seed = 0x9E3779B9;
+    private int random = 0x2545F491;
+    private int size = 0;
+    private int modCount = 0;
+    private Object homelessKey;
+    private Object homelessValue;
+    private int homelessHash;
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Constructs an empty CuckooHashMap with the default initial capacity (16).
+     */
+    public CuckooHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty CuckooHashMap with the custom initial capacity.
+     * The capacity is rounded up to a power-of-two number of buckets of four slots.
+     *
+     * @param initialCapacity the initial number of slots. Must be non-negative.
+     * @throws IllegalArgumentException if capacity less than 0.
+     */
+    public CuckooHashMap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity can't be negative");
+        }
+        allocate(Hashing.tableSizeFor((initialCapacity + BUCKET_SIZE - 1) / BUCKET_SIZE));
+    }
+
+    /**
+     * Constructs CuckooHashMap large enough to hold the specified map
+     * and adds all key-value pairs from it.
+     *
+     * @param m map containing the key-value pairs that will be added to the new hash map.
+     */
+    public CuckooHashMap(Map<? extends K, ? extends V> m) {
+        this((int) (m.size() / LOAD_FACTOR) + 1);
+        putAll(m);
+    }
+
+    /**
+     * Allocates an empty table with the given power-of-two number of buckets.
+     *
+     * @param buckets the number of buckets.
+     */
+    private void allocate(int buckets) {
+        int capacity = buckets * BUCKET_SIZE;
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        mask = buckets - 1;
+        maxFill = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Returns the first candidate bucket of a hash.
+     *
+     * @param h the mixed hash.
+     * @return the bucket index.
+     */
+    private int bucket1(int h) {
+        return h & mask;
+    }
+
+    /**
+     * Returns the second candidate bucket of a hash. It depends on the current seed,
+     * so a rehash with a new seed gives every key a new alternative.
+     *
+     * @param h the mixed hash.
+     * @return the bucket index, different from the first one when the table has more than one bucket.
+     */
+    private int bucket2(int h) {
+        int b1 = h & mask;
+        int b2 = Hashing.mix(h ^ seed) & mask;
+        return b2 != b1 ? b2 : (b1 ^ 1) & mask;
+    }
+
+    /**
+     * Returns the next value of the xorshift generator used to pick eviction victims.
+     *
+     * @return a pseudo-random int.
+     */
+    private int nextRandom() {
+        int x = random;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        random = x;
+        return x;
+    }
+
+    /**
+     * Returns the slot holding the given key, looking at both candidate buckets and the stash.
+     *
+     * @param key the key to look for.
+     * @return the slot index, a negative value {@code -(i + 2)} for stash entry {@code i},
+     *         or -1 if the map contains no mapping for the key.
+     */
+    private int find(Object key) {
+        if (key == null) {
+            return -1;
+        }
+
+        int h = Hashing.mix(key.hashCode());
+        int i = findInBucket(bucket1(h), key, h);
+        if (i < 0) {
+            i = findInBucket(bucket2(h), key, h);
+        }
+        if (i < 0 && stashSize > 0) {
+            for (int s = 0; s < stashSize; s++) {
+                Object k = stashKeys[s];
+                if (stashHashes[s] == h && (k == key || k.equals(key))) {
+                    return -(s + 2);
+                }
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Returns the slot of the given bucket that holds the given key.
+     *
+     * @param bucket the bucket index.
+     * @param key the key to look for.
+     * @param h the mixed hash of the key.
+     * @return the slot index, or -1 if the bucket does not hold the key.
+     */
+    private int findInBucket(int bucket, Object key, int h) {
+        Object[] ks = keys;
+        int[] hs = hashes;
+        int start = bucket * BUCKET_SIZE;
+
+        for (int i = start; i < start + BUCKET_SIZE; i++) {
+            Object k = ks[i];
+            if (k != null && hs[i] == h && (k == key || k.equals(key))) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the number of key-value pairs in the map.
+     *
+     * @return the number of key-value mappings in this map.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return true, if size equals 0.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if the map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested.
+     * @return true, if the map contains a mapping for the specified key.
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != -1;
+    }
+
+    /**
+     * Checks if the map contains a mapping for the specified value.
+     *
+     * @param value value whose presence in this map is to be tested.
+     * @return true, if the map contains a mapping for the specified value.
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        Object[] ks = keys;
+        Object[] vs = values;
+
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != null && Objects.equals(vs[i], value)) {
+                return true;
+            }
+        }
+        for (int s = 0; s < stashSize; s++) {
+            if (Objects.equals(stashValues[s], value)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped.
+     *
+     * @param key the key whose associated value is to be returned.
+     * @return the value to which the specified key is mapped, or null if the map contains no mapping for the key.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int i = find(key);
+        if (i >= 0) {
+            return (V) values[i];
+        }
+        return i == -1 ? null : (V) stashValues[-i - 2];
+    }
+
+    /**
+     * Associates the specified value with the specified key in the map.
+     *
+     * @param key key with which the specified value is to be associated. Must be not null.
+     * @param value value to be associated with the specified key.
+     * @return the previous value associated with the key, or null if there was no mapping for the key.
+     * @throws NullPointerException if the key is null.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Objects.requireNonNull(key, "Null keys are not supported");
+
+        int i = find(key);
+        if (i != -1) {
+            V oldValue;
+            if (i >= 0) {
+                oldValue = (V) values[i];
+                values[i] = value;
+            } else {
+                oldValue = (V) stashValues[-i - 2];
+                stashValues[-i - 2] = value;
+            }
+            return oldValue;
+        }
+
+        if (size >= maxFill) {
+            rehash((mask + 1) * 2);
+        }
+
+        if (!place(key, value, Hashing.mix(key.hashCode()))) {
+            rehash(mask + 1);
+        }
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Stores an entry whose key is known to be absent. If both candidate buckets are full,
+     * a random entry of one of them is evicted to its other bucket, and the walk continues
+     * with the evicted entry until a free slot is found. A walk that is too long ends in the stash.
+     *
+     * @param key the key to store.
+     * @param value the value to store.
+     * @param h the mixed hash of the key.
+     * @return true, if the entry and every evicted entry found a place; otherwise the entry
+     *         left without a place is kept in the homeless fields and the table must be rehashed.
+     */
+    private boolean place(Object key, Object value, int h) {
+        int b1 = bucket1(h);
+        int b2 = bucket2(h);
+        if (placeInBucket(b1, key, value, h) || placeInBucket(b2, key, value, h)) {
+            return true;
+        }
+
+        int bucket = (nextRandom() & 1) == 0 ? b1 : b2;
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            int slot = bucket * BUCKET_SIZE + (nextRandom() >>> 30);
+            Object victimKey = keys[slot];
+            Object victimValue = values[slot];
+            int victimHash = hashes[slot];
+            keys[slot] = key;
+            values[slot] = value;
+            hashes[slot] = h;
+
+            key = victimKey;
+            value = victimValue;
+            h = victimHash;
+            int v1 = bucket1(h);
+            bucket = v1 != bucket ? v1 : bucket2(h);
+            if (placeInBucket(bucket, key, value, h)) {
+                return true;
+            }
+        }
+
+        if (stashSize < stashKeys.length) {
+            stashKeys[stashSize] = key;
+            stashValues[stashSize] = value;
+            stashHashes[stashSize] = h;
+            stashSize++;
+            return true;
+        }
+
+        homelessKey = key;
+        homelessValue = value;
+        homelessHash = h;
+        return false;
+    }
+
+    /**
+     * Stores an entry in the first free slot of the given bucket.
+     *
+     * @param bucket the bucket index.
+     * @param key the key to store.
+     * @param value the value to store.
+     * @param h the mixed hash of the key.
+     * @return true, if the bucket had a free slot.
+     */
+    private boolean placeInBucket(int bucket, Object key, Object value, int h) {
+        int start = bucket * BUCKET_SIZE;
+
+        for (int i = start; i < start + BUCKET_SIZE; i++) {
+            if (keys[i] == null) {
+                keys[i] = key;
+                values[i] = value;
+                hashes[i] = h;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Rebuilds the table with a new seed for the second hash function, moving the stash and
+     * any homeless entry back into the table. If the entries still do not fit after a few
+     * seeds, the number of buckets is doubled. Keys with equal hash codes share both candidate
+     * buckets under every seed, so if doubling does not help either, the stash is enlarged.
+     *
+     * @param buckets the requested power-of-two number of buckets.
+     */
+    private void rehash(int buckets) {
+        int count = size + (homelessKey != null ? 1 : 0);
+        Object[] allKeys = new Object[count];
+        Object[] allValues = new Object[count];
+        int[] allHashes = new int[count];
+        int n = 0;
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                allKeys[n] = keys[i];
+                allValues[n] = values[i];
+                allHashes[n++] = hashes[i];
+            }
+        }
+        for (int s = 0; s < stashSize; s++) {
+            allKeys[n] = stashKeys[s];
+            allValues[n] = stashValues[s];
+            allHashes[n++] = stashHashes[s];
+        }
+        if (homelessKey != null) {
+            allKeys[n] = homelessKey;
+            allValues[n] = homelessValue;
+            allHashes[n] = homelessHash;
+            homelessKey = null;
+            homelessValue = null;
+        }
+
+        for (int attempt = 0; ; attempt++) {
+            if (attempt > 0 && attempt % REHASH_ATTEMPTS == 0) {
+                if (attempt < 3 * REHASH_ATTEMPTS) {
+                    buckets *= 2;
+                } else {
+                    growStash();
+                }
+            }
+            seed = Hashing.mix(seed + 0x9E3779B9);
+            allocate(buckets);
+            clearStash();
+
+            boolean placed = true;
+            for (int i = 0; i < count && placed; i++) {
+                placed = place(allKeys[i], allValues[i], allHashes[i]);
+            }
+            if (placed) {
+                return;
+            }
+            homelessKey = null;
+            homelessValue = null;
+        }
+    }
+
+    /**
+     * Removes the mapping for the specified key from the map.
+     *
+     * @param key key whose mapping is to be removed from the map.
+     * @return the previous value associated with the key, or null if there was no mapping for the key.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int i = find(key);
+        if (i == -1) {
+            return null;
+        }
+
+        V oldValue;
+        if (i >= 0) {
+            oldValue = (V) values[i];
+            removeAt(i);
+            drainStash(i / BUCKET_SIZE);
+        } else {
+            oldValue = (V) stashValues[-i - 2];
+            removeFromStash(-i - 2);
+        }
+        return oldValue;
+    }
+
+    /**
+     * Empties the given table slot.
+     *
+     * @param i the slot index.
+     */
+    private void removeAt(int i) {
+        keys[i] = null;
+        values[i] = null;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Removes the given stash entry, keeping the stash packed.
+     *
+     * @param s the stash index.
+     */
+    private void removeFromStash(int s) {
+        int moved = stashSize - s - 1;
+        System.arraycopy(stashKeys, s + 1, stashKeys, s, moved);
+        System.arraycopy(stashValues, s + 1, stashValues, s, moved);
+        System.arraycopy(stashHashes, s + 1, stashHashes, s, moved);
+        stashSize--;
+        stashKeys[stashSize] = null;
+        stashValues[stashSize] = null;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Moves stash entries that have the given bucket as a candidate into its free slots.
+     *
+     * @param bucket the bucket that just got a free slot.
+     */
+    private void drainStash(int bucket) {
+        for (int s = stashSize - 1; s >= 0; s--) {
+            int h = stashHashes[s];
+            if ((bucket1(h) == bucket || bucket2(h) == bucket)
+                    && placeInBucket(bucket, stashKeys[s], stashValues[s], h)) {
+                removeFromStash(s);
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Doubles the number of entries the stash can hold.
+     */
+    private void growStash() {
+        int length = stashKeys.length * 2;
+        stashKeys = Arrays.copyOf(stashKeys, length);
+        stashValues = Arrays.copyOf(stashValues, length);
+        stashHashes = Arrays.copyOf(stashHashes, length);
+    }
+
+    /**
+     * Empties the stash.
+     */
+    private void clearStash() {
+        Arrays.fill(stashKeys, null);
+        Arrays.fill(stashValues, null);
+        stashSize = 0;
+    }
+
+    /**
+     * Removes all the mappings from the map.
+     */
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        clearStash();
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns the number of entries that are currently kept in the stash.
+     *
+     * @return the stash size, normally at most 4.
+     */
+    public int stashSize() {
+        return stashSize;
+    }
+
+    /**
+     * Returns a set view of all key-value pairs (entries) contained in this map.
+     * The set is backed by the map, so changes to the map are reflected in the set.
+     *
+     * @return set view of all key-value pairs contained in this map.
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> es = entrySet;
+        return es != null ? es : (entrySet = new EntrySet());
+    }
+
+    /**
+     * Returns an iterator over all key-value pairs contained in this map.
+     *
+     * @return an iterator over the entries in the map.
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator();
+    }
+
+    /**
+     * The EntrySet inner class is the live entry set view of the map.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CuckooHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e)) {
+                return false;
+            }
+            return containsKey(e.getKey()) && Objects.equals(get(e.getKey()), e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            CuckooHashMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+            return true;
+        }
+    }
+
+    /**
+     * The KeyEntry inner class is a map entry that reads and writes through to the map by key,
+     * since evictions and rehashes may move the key to another slot.
+     */
+    private final class KeyEntry implements Map.Entry<K, V> {
+        private final K key;
+
+        KeyEntry(K key) {
+            this.key = key;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return get(key);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V setValue(V value) {
+            int i = find(key);
+            if (i == -1) {
+                throw new IllegalStateException("Entry is no longer in the map");
+            }
+            Object[] vs = i >= 0 ? values : stashValues;
+            int index = i >= 0 ? i : -i - 2;
+            V oldValue = (V) vs[index];
+            vs[index] = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e
+                    && key.equals(e.getKey())
+                    && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
+    /**
+     * The EntryIterator inner class walks the table slots in order and then the stash.
+     * Removing through the iterator never moves other entries into the table,
+     * so no entry is skipped or returned twice.
+     */
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private int next = 0;
+        private int last = -1;
+        private int remaining = size;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+
+            while (next < keys.length && keys[next] == null) {
+                next++;
+            }
+            last = next++;
+            if (last < keys.length) {
+                return new KeyEntry((K) keys[last]);
+            }
+            return new KeyEntry((K) stashKeys[last - keys.length]);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            if (last < keys.length) {
+                removeAt(last);
+            } else {
+                removeFromStash(last - keys.length);
+                next--;
+            }
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+}
@@ -0,0 +1,3202 @@
+package org.tatiSmol;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * CustomHashMap class implements Map and Iterable interfaces.
+ * This is a custom implementation of HashMap class.
+ *
+ * @param <K> the type of keys maintained by this map.
+ * @param <V> the type of mapped values.
+ */
+public class CustomHashMap<K, V> implements Map<K, V>, Iterable<Map.Entry<K, V>> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    /**
+     * The bin length above which a chain is converted into a tree.
+     */
+    private static final int TREEIFY_THRESHOLD = 8;
+    /**
+     * The bin length at or below which a tree is converted back into a chain.
+     */
+    private static final int UNTREEIFY_THRESHOLD = 6;
+    /**
+     * The smallest table that bins may be treeified in; smaller tables are resized instead.
+     */
+    private static final int MIN_TREEIFY_CAPACITY = 64;
+    /**
+     * The number of old bins an incremental resize moves on each put or remove.
+     */
+    private static final int REHASH_STEP = 4;
+    /**
+     * The smallest old table that is moved in parallel by an eager resize; smaller tables are moved sequentially.
+     */
+    private static final int PARALLEL_RESIZE_THRESHOLD = 1 << 16;
+    /**
+     * The number of old bins moved by a single task of a parallel resize.
+     */
+    private static final int RESIZE_CHUNK_SIZE = 1 << 13;
+    /**
+     * The number of bins visited by a single task of a parallel bulk operation.
+     */
+    private static final int TRAVERSAL_CHUNK_SIZE = 1 << 13;
+    /**
+     * The number of keys whose bins a batch lookup loads before it resolves any of them.
+     * At most 32, since loadBins() returns a bit per key.
+     */
+    private static final int LOOKUP_GROUP_SIZE = 16;
+    private final float loadFactor;
+    private final GrowthPolicy growthPolicy;
+    private final boolean incrementalResize;
+    /**
+     * The pool that runs parallel resizes, or null to use the common pool.
+     */
+    private final ForkJoinPool resizePool;
+    /**
+     * The table length remove() never shrinks below: the initial table length, but at least DEFAULT_CAPACITY.
+     */
+    private final int minTableLength;
+    /**
+     * The keys mapped to each value, or null if the value index is disabled.
+     */
+    private final Map<V, Set<K>> valueIndex;
+    /**
+     * True, if lookups first ask bloomFilter whether the key may be mapped.
+     */
+    private final boolean bloomFilterEnabled;
+    /**
+     * The filter of the hashes of all mapped keys, or null if it is disabled. It is rebuilt with every new table,
+     * and once more hashes have been added to it than it was sized for.
+     */
+    private BlockedBloomFilter bloomFilter;
+    /**
+     * The filter of the keys not moved out of oldTable yet, or null if no incremental resize is in progress.
+     */
+    private BlockedBloomFilter oldBloomFilter;
+    /**
+     * The number of hashes added to bloomFilter, including those of keys removed since.
+     */
+    private int bloomHashes;
+    /**
+     * The number of hashes bloomFilter was sized for.
+     */
+    private int bloomCapacity;
+    /**
+     * The number of lookups the Bloom filter rejected.
+     */
+    private long bloomRejections;
+    /**
+     * The number of lookups the Bloom filter passed that found no mapping.
+     */
+    private long bloomFalsePositives;
+    private Node<K, V>[] table;
+    /**
+     * The size at which put() grows the table: the table length times the load factor, rounded up.
+     */
+    private int threshold;
+    /**
+     * The size below which remove() halves the table. It is a quarter of threshold, so a halved
+     * table is still only half full and has to grow or shrink by a factor of two before resizing again.
+     */
+    private int shrinkThreshold;
+    /**
+     * The table being drained by an incremental resize, or null if no resize is in progress.
+     */
+    private Node<K, V>[] oldTable;
+    /**
+     * The index of the next bin of oldTable to move; bins below it have been moved to table.
+     */
+    private int rehashIndex;
+    private int size = 0;
+    /**
+     * The number of structural modifications and table changes, used by the iterators to fail fast.
+     */
+    int modCount = 0;
+    private Set<K> keySet;
+    private Collection<V> values;
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Constructs an empty CustomHashMap with the default initial capacity (16).
+     */
+    public CustomHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty CustomHashMap with the custom initial capacity.
+     * The capacity is rounded up to the next power of two.
+     *
+     * @param initialCapacity the initial capacity of the hash map. Must be non-negative.
+     * @throws IllegalArgumentException if capacity less than 0.
+     */
+    public CustomHashMap(int initialCapacity) {
+        this(initialCapacity, false);
+    }
+
+    /**
+     * Constructs an empty CustomHashMap with the custom initial capacity and resize mode.
+     * In incremental mode a resize does not move all nodes at once: the old and the new
+     * table are kept side by side and every put and remove moves a few bins of the old table,
+     * so that no single operation has to rehash the whole map.
+     *
+     * @param initialCapacity the initial capacity of the hash map. Must be non-negative.
+     * @param incrementalResize true, to spread the work of each resize over later operations.
+     * @throws IllegalArgumentException if capacity less than 0.
+     */
+    public CustomHashMap(int initialCapacity, boolean incrementalResize) {
+        this(initialCapacity, LOAD_FACTOR, GrowthPolicy.doubling(), incrementalResize, null, false, false);
+    }
+
+    /**
+     * Constructs an empty CustomHashMap with the custom initial capacity and load factor.
+     * A lower load factor uses more memory for shorter chains, a higher one the other way round.
+     *
+     * @param initialCapacity the initial capacity of the hash map. Must be non-negative.
+     * @param loadFactor the ratio of size to table length at which the table grows. Must be positive.
+     * @throws IllegalArgumentException if capacity less than 0 or load factor is not positive.
+     */
+    public CustomHashMap(int initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, GrowthPolicy.doubling(), false, null, false, false);
+    }
+
+    /**
+     * Constructs an empty CustomHashMap with the custom initial capacity, load factor and growth policy.
+     *
+     * @param initialCapacity the initial capacity of the hash map. Must be non-negative.
+     * @param loadFactor the ratio of size to table length at which the table grows. Must be positive.
+     * @param growthPolicy the policy that decides the new table length when the table grows.
+     * @throws IllegalArgumentException if capacity less than 0 or load factor is not positive.
+     * @throws NullPointerException if the growth policy is null.
+     */
+    public CustomHashMap(int initialCapacity, float loadFactor, GrowthPolicy growthPolicy) {
+        this(initialCapacity, loadFactor, growthPolicy, false, null, false, false);
+    }
+
+    /**
+     * Constructs an empty CustomHashMap with the custom initial capacity, whose large
+     * tables are resized in parallel on the given pool.
+     *
+     * @param initialCapacity the initial capacity of the hash map. Must be non-negative.
+     * @param resizePool the pool that moves the bins of large tables during a resize.
+     * @throws IllegalArgumentException if capacity less than 0.
+     * @throws NullPointerException if the pool is null.
+     */
+    public CustomHashMap(int initialCapacity, ForkJoinPool resizePool) {
+        this(initialCapacity, LOAD_FACTOR, GrowthPolicy.doubling(), false,
+                Objects.requireNonNull(resizePool, "Resize pool can't be null"), false, false);
+    }
+
+    /**
+     * Constructs an empty CustomHashMap with all settings given explicitly.
+     *
+     * @param initialCapacity the initial capacity of the hash map. Must be non-negative.
+     * @param loadFactor the ratio of size to table length at which the table grows. Must be positive.
+     * @param growthPolicy the policy that decides the new table length when the table grows.
+     * @param incrementalResize true, to spread the work of each resize over later operations.
+     * @param resizePool the pool for parallel resizes, or null to use the common pool.
+     * @param valueIndex true, to keep an index from values to the keys mapped to them.
+     * @param bloomFilter true, to reject lookups of unmapped keys with a Bloom filter.
+     * @throws IllegalArgumentException if capacity less than 0 or load factor is not positive.
+     * @throws NullPointerException if the growth policy is null.
+     */
+    private CustomHashMap(int initialCapacity, float loadFactor, GrowthPolicy growthPolicy,
+                          boolean incrementalResize, ForkJoinPool resizePool, boolean valueIndex,
+                          boolean bloomFilter) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity can't be negative");
+        }
+        if (!(loadFactor > 0)) {
+            throw new IllegalArgumentException("Load factor must be positive");
+        }
+        this.loadFactor = loadFactor;
+        this.growthPolicy = Objects.requireNonNull(growthPolicy, "Growth policy can't be null");
+        this.incrementalResize = incrementalResize;
+        this.resizePool = resizePool;
+        this.valueIndex = valueIndex ? new HashMap<>() : null;
+        this.bloomFilterEnabled = bloomFilter;
+        setTable((Node<K, V>[]) new Node[Hashing.tableSizeFor(initialCapacity)]);
+        minTableLength = Math.max(table.length, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns a builder for a CustomHashMap with a custom initial capacity, load factor,
+     * growth policy, resize mode, value index or Bloom filter.
+     *
+     * @param <K> the type of keys maintained by the map.
+     * @param <V> the type of mapped values.
+     * @return a builder with the default settings.
+     */
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Constructs CustomHashMap with a capacity large enough to hold the specified map
+     * without resizing and adds all key-value pairs from the specified map.
+     *
+     * @param m map containing the key-value pairs that will be added to the new hash map.
+     */
+    public CustomHashMap(Map<? extends K, ? extends V> m) {
+        this(capacityFor(m.size(), LOAD_FACTOR));
+        putAll(m);
+    }
+
+    /**
+     * Returns the table capacity needed to hold the given number of mappings without resizing.
+     *
+     * @param mappings the number of mappings. Must be non-negative.
+     * @param loadFactor the load factor of the map.
+     * @return the power-of-two table capacity, at most MAXIMUM_CAPACITY.
+     */
+    private static int capacityFor(int mappings, float loadFactor) {
+        double needed = Math.ceil(mappings / (double) loadFactor);
+        return Hashing.tableSizeFor((int) Math.min(needed, Hashing.MAXIMUM_CAPACITY));
+    }
+
+    /**
+     * Installs a new table and precomputes the sizes at which it grows and shrinks,
+     * so that put() and remove() only compare integers. Installing a table invalidates iterators.
+     *
+     * @param newTable the new table.
+     */
+    private void setTable(Node<K, V>[] newTable) {
+        table = newTable;
+        modCount++;
+        double length = newTable.length;
+        threshold = newTable.length >= Hashing.MAXIMUM_CAPACITY
+                ? Integer.MAX_VALUE
+                : (int) Math.min(Math.ceil(length * loadFactor), Integer.MAX_VALUE);
+        shrinkThreshold = (int) Math.min(Math.ceil(length * loadFactor / 4), Integer.MAX_VALUE);
+        if (bloomFilterEnabled) {
+            if (oldTable != null) {
+                startBloomFilterMigration();
+            } else {
+                rebuildBloomFilter();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of hashes a new Bloom filter is sized for: the threshold, but at least twice the size,
+     * so that at least half of it is left for inserts and rebuilding it costs O(1) per insert.
+     *
+     * @return the capacity of a new Bloom filter.
+     */
+    private int newBloomCapacity() {
+        return (int) Math.min(Math.max(threshold, 2L * size), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Replaces the Bloom filter with one sized for the new threshold and adds the hashes of all nodes.
+     * This drops the bits of removed keys, which the filter can't remove on its own.
+     */
+    private void rebuildBloomFilter() {
+        bloomCapacity = newBloomCapacity();
+        BlockedBloomFilter filter = new BlockedBloomFilter(bloomCapacity);
+        for (Node<K, V>[] tab : tables()) {
+            for (Node<K, V> node : tab) {
+                for (; node != null; node = node.next) {
+                    filter.add(node.hash);
+                }
+            }
+        }
+        bloomFilter = filter;
+        oldBloomFilter = null;
+        bloomHashes = size;
+    }
+
+    /**
+     * Starts an empty Bloom filter for the table of an incremental resize, keeping the current one for the keys
+     * of oldTable. {@link #rehashStep(int)} adds the hashes of every bin it moves, so starting the resize doesn't
+     * walk all nodes.
+     */
+    private void startBloomFilterMigration() {
+        oldBloomFilter = bloomFilter;
+        bloomCapacity = newBloomCapacity();
+        bloomFilter = new BlockedBloomFilter(bloomCapacity);
+        bloomHashes = 0;
+    }
+
+    /**
+     * Checks the Bloom filters for the hash and counts the lookup as rejected if neither may contain it.
+     *
+     * @param hash the hash of the looked up key.
+     * @return true, if the key is certainly not mapped; false, if it may be or the filter is disabled.
+     */
+    private boolean bloomRejects(int hash) {
+        if (bloomFilter == null || bloomFilter.mightContain(hash)
+                || (oldBloomFilter != null && oldBloomFilter.mightContain(hash))) {
+            return false;
+        }
+        bloomRejections++;
+        return true;
+    }
+
+    /**
+     * Returns the number of key-value pairs in the map.
+     *
+     * @return the number of key-value mappings in this map.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return true, if size equals 0.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Computes the hash code for the given key. The high half of the key's hashCode()
+     * is folded into the low half, so that keys differing only in high bits do not
+     * all fall into the same bucket of a power-of-two table.
+     *
+     * @param key the key to compute the hash code for. Must be not null.
+     * @return the hash code of the key.
+     */
+    public int hash(@NotNull K key) {
+        return Hashing.spread(key.hashCode());
+    }
+
+    /**
+     * Returns the index of the bucket for the given hash in a table of the given length.
+     * Power-of-two tables, which are all tables under the default growth policy, take the
+     * index with a mask; other lengths fall back to an integer division.
+     *
+     * @param hash the hash code computed by {@link #hash(Object)}.
+     * @param length the table length.
+     * @return the bucket index.
+     */
+    private static int indexFor(int hash, int length) {
+        int mask = length - 1;
+        if ((length & mask) == 0) {
+            return hash & mask;
+        }
+        return (hash & Integer.MAX_VALUE) % length;
+    }
+
+    /**
+     * Checks if the given table length is a power of two.
+     *
+     * @param length the table length.
+     * @return true, if the length is a power of two.
+     */
+    private static boolean isPowerOfTwo(int length) {
+        return (length & (length - 1)) == 0;
+    }
+
+    /**
+     * Returns the table holding the bin for the given hash. While an incremental resize
+     * is in progress, bins of the old table that have not been moved yet stay in use.
+     *
+     * @param hash the hash code computed by {@link #hash(Object)}.
+     * @return the old table, if the bin has not been moved yet, otherwise the current table.
+     */
+    private Node<K, V>[] tableFor(int hash) {
+        Node<K, V>[] old = oldTable;
+        if (old != null && indexFor(hash, old.length) >= rehashIndex) {
+            return old;
+        }
+        return table;
+    }
+
+    /**
+     * Returns the tables holding the nodes of the map: the old table of an incremental resize
+     * in progress, if any, and the current table.
+     *
+     * @return the tables to scan.
+     */
+    private Node<K, V>[][] tables() {
+        return oldTable == null ? new Node[][]{table} : new Node[][]{oldTable, table};
+    }
+
+    /**
+     * Checks if the map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested.
+     * @return true, if the map contains a mapping for the specified key.
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return getNode(key) != null;
+    }
+
+    /**
+     * Checks if the map contains a mapping for the specified value.
+     *
+     * @param value value whose presence in this map is to be tested.
+     * @return true, if the map contains a mapping for the specified value.
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        if (valueIndex != null) {
+            return valueIndex.containsKey(value);
+        }
+
+        for (Node<K, V>[] tab : tables()) {
+            for (Node<K, V> node : tab) {
+                while (node != null) {
+                    if (Objects.equals(node.getValue(), value)) {
+                        return true;
+                    }
+                    node = node.getNext();
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the keys mapped to the specified value. With the value index this is a single lookup,
+     * otherwise every bin of the table is scanned.
+     *
+     * @param value the value whose keys are to be returned.
+     * @return an unmodifiable set of the keys mapped to the value, empty if there are none.
+     */
+    public Set<K> keysForValue(V value) {
+        if (valueIndex != null) {
+            Set<K> keys = valueIndex.get(value);
+            return keys == null ? Collections.emptySet() : Collections.unmodifiableSet(keys);
+        }
+
+        Set<K> keys = new HashSet<>();
+        for (Node<K, V>[] tab : tables()) {
+            for (Node<K, V> node : tab) {
+                for (; node != null; node = node.getNext()) {
+                    if (Objects.equals(node.getValue(), value)) {
+                        keys.add(node.getKey());
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableSet(keys);
+    }
+
+    /**
+     * Replaces the value of a node, keeping the value index up to date.
+     *
+     * @param node the node whose value is replaced.
+     * @param value the new value.
+     * @return the previous value of the node.
+     */
+    V setNodeValue(Node<K, V> node, V value) {
+        V oldValue = node.setValue(value);
+        if (valueIndex != null && !Objects.equals(oldValue, value)) {
+            unindexValue(node.getKey(), oldValue);
+            indexValue(node.getKey(), value);
+        }
+        return oldValue;
+    }
+
+    /**
+     * Adds a key to the keys of its value in the value index.
+     *
+     * @param key the key.
+     * @param value the value mapped to the key.
+     */
+    private void indexValue(K key, V value) {
+        valueIndex.computeIfAbsent(value, v -> new HashSet<>()).add(key);
+    }
+
+    /**
+     * Removes a key from the keys of its value in the value index, and the value once no key is left.
+     *
+     * @param key the key.
+     * @param value the value that was mapped to the key.
+     */
+    private void unindexValue(K key, V value) {
+        Set<K> keys = valueIndex.get(value);
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            valueIndex.remove(value);
+        }
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped.
+     *
+     * @param key the key whose associated value is to be returned.
+     * @return the value to which the specified key is mapped, or null if the map contains no mapping for the key.
+     */
+    @Override
+    public V get(Object key) {
+        Node<K, V> node = getNode(key);
+        return node == null ? null : node.getValue();
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or the default value
+     * if the map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned.
+     * @param defaultValue the value to return if the map contains no mapping for the key.
+     * @return the value to which the specified key is mapped, or defaultValue.
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        Node<K, V> node = getNode(key);
+        if (node == null) {
+            return defaultValue;
+        }
+        afterNodeAccess(node);
+        return node.getValue();
+    }
+
+    /**
+     * Finds the node holding the specified key, walking the chain or searching the tree of its bin.
+     *
+     * @param key the key to look for.
+     * @return the node, or null if the map contains no mapping for the key.
+     */
+    Node<K, V> getNode(Object key) {
+        return getNode(hash((K) key), key);
+    }
+
+    /**
+     * Finds the node holding the specified key with the given hash.
+     *
+     * @param hash the hash of the key.
+     * @param key the key to look for.
+     * @return the node, or null if the map contains no mapping for the key.
+     */
+    private Node<K, V> getNode(int hash, Object key) {
+        if (bloomRejects(hash)) {
+            return null;
+        }
+
+        Node<K, V>[] tab = tableFor(hash);
+        Node<K, V> node = findInBin(tab[indexFor(hash, tab.length)], hash, key);
+        if (node == null && bloomFilter != null) {
+            bloomFalsePositives++;
+        }
+        return node;
+    }
+
+    /**
+     * Looks up many keys at once and stores the value of keys[i] in out[i], or null if the key is not mapped.
+     * The keys are taken in groups of LOOKUP_GROUP_SIZE: the hashes of a group are computed first,
+     * then all its bins are loaded, then the first nodes of the bins, and only then are the chains
+     * walked. The loads within each step don't depend on each other, so their cache misses overlap
+     * instead of being paid one key after another.
+     *
+     * @param keys the keys to look up.
+     * @param out the array that receives the values. Must be at least as long as keys.
+     * @return the number of keys that are mapped.
+     * @throws IllegalArgumentException if out is shorter than keys.
+     */
+    public int getAll(K[] keys, V[] out) {
+        if (out.length < keys.length) {
+            throw new IllegalArgumentException("Output array is shorter than the keys");
+        }
+
+        int found = 0;
+        int[] hashes = new int[LOOKUP_GROUP_SIZE];
+        Node<K, V>[] heads = (Node<K, V>[]) new Node[LOOKUP_GROUP_SIZE];
+        for (int from = 0; from < keys.length; from += LOOKUP_GROUP_SIZE) {
+            int count = Math.min(LOOKUP_GROUP_SIZE, keys.length - from);
+            int rejected = loadBins(keys, from, count, hashes, heads);
+            for (int i = 0; i < count; i++) {
+                Node<K, V> node = findInBin(heads[i], hashes[i], keys[from + i]);
+                if (node == null) {
+                    out[from + i] = null;
+                    countBloomFalsePositive(rejected, i);
+                } else {
+                    afterNodeAccess(node);
+                    out[from + i] = node.getValue();
+                    found++;
+                }
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Checks if the map contains a mapping for every one of the specified keys,
+     * looking them up in groups like {@link #getAll(Object[], Object[])}.
+     *
+     * @param keys the keys whose presence in this map is to be tested.
+     * @return true, if all the keys are mapped.
+     */
+    public boolean containsAllKeys(K[] keys) {
+        int[] hashes = new int[LOOKUP_GROUP_SIZE];
+        Node<K, V>[] heads = (Node<K, V>[]) new Node[LOOKUP_GROUP_SIZE];
+        for (int from = 0; from < keys.length; from += LOOKUP_GROUP_SIZE) {
+            int count = Math.min(LOOKUP_GROUP_SIZE, keys.length - from);
+            int rejected = loadBins(keys, from, count, hashes, heads);
+            for (int i = 0; i < count; i++) {
+                if (findInBin(heads[i], hashes[i], keys[from + i]) == null) {
+                    countBloomFalsePositive(rejected, i);
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Counts a batch lookup that found no mapping as a false positive, unless the Bloom filter rejected it.
+     *
+     * @param rejected the bit mask of the keys of the group the Bloom filter rejected.
+     * @param i the index of the key within the group.
+     */
+    private void countBloomFalsePositive(int rejected, int i) {
+        if (bloomFilter != null && (rejected & (1 << i)) == 0) {
+            bloomFalsePositives++;
+        }
+    }
+
+    /**
+     * Computes the hashes of a group of keys, then loads the first node of each of their bins,
+     * then reads the cached hash of each of those nodes, so that the misses of a step overlap.
+     *
+     * @param keys the keys to look up.
+     * @param from the index of the first key of the group.
+     * @param count the number of keys in the group.
+     * @param hashes the array that receives the hashes of the group.
+     * @param heads the array that receives the first nodes of the bins, or null for empty bins.
+     * @return the bit mask of the keys of the group the Bloom filter rejected: bit i for keys[from + i].
+     */
+    private int loadBins(K[] keys, int from, int count, int[] hashes, Node<K, V>[] heads) {
+        int rejected = 0;
+        for (int i = 0; i < count; i++) {
+            hashes[i] = hash(keys[from + i]);
+        }
+        for (int i = 0; i < count; i++) {
+            if (bloomRejects(hashes[i])) {
+                heads[i] = null;
+                rejected |= 1 << i;
+                continue;
+            }
+            Node<K, V>[] tab = tableFor(hashes[i]);
+            heads[i] = tab[indexFor(hashes[i], tab.length)];
+        }
+        for (int i = 0; i < count; i++) {
+            Node<K, V> head = heads[i];
+            if (head != null && head.hash != hashes[i] && head.next == null && !(head instanceof TreeNode)) {
+                heads[i] = null;
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * Finds the node holding the specified key in the bin starting with the given node.
+     *
+     * @param head the first node of the bin, or null if it is empty.
+     * @param hash the hash of the key.
+     * @param key the key to look for.
+     * @return the node, or null if the bin contains no mapping for the key.
+     */
+    private Node<K, V> findInBin(Node<K, V> head, int hash, Object key) {
+        if (head instanceof TreeNode<K, V> treeHead) {
+            return treeHead.root().find(hash, key, null);
+        }
+
+        for (Node<K, V> node = head; node != null; node = node.getNext()) {
+            if (matches(node, hash, key)) {
+                return node;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Associates the specified value with the specified key in the map.
+     *
+     * @param key key with which the specified value is to be associated.
+     * @param value value to be associated with the specified key.
+     * @return the previous value associated with the key, or null if there was no mapping for the key.
+     */
+    @Override
+    public V put(K key, V value) {
+        return putVal(hash(key), key, value, false);
+    }
+
+    /**
+     * Associates the specified value with the specified key, if the key is not mapped yet or is mapped to null.
+     *
+     * @param key key with which the specified value is to be associated.
+     * @param value value to be associated with the specified key.
+     * @return the current value associated with the key, or null if there was no mapping for the key.
+     */
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return putVal(hash(key), key, value, true);
+    }
+
+    /**
+     * Looks the key up and either updates its node or adds a new node at the end of the same bin.
+     *
+     * @param hash the hash of the key.
+     * @param key key with which the specified value is to be associated.
+     * @param value value to be associated with the specified key.
+     * @param onlyIfAbsent true, to keep a non-null value of an existing mapping.
+     * @return the previous value associated with the key, or null if there was no mapping for the key.
+     */
+    private V putVal(int hash, K key, V value, boolean onlyIfAbsent) {
+        Node<K, V>[] tab = tableFor(hash);
+        int index = indexFor(hash, tab.length);
+        Node<K, V> first = tab[index];
+        Node<K, V> existing = null;
+        Node<K, V> last = null;
+        int binCount = 0;
+
+        if (first instanceof TreeNode<K, V> head) {
+            existing = head.root().find(hash, key, null);
+        } else {
+            for (Node<K, V> node = first; node != null; node = node.getNext()) {
+                if (matches(node, hash, key)) {
+                    existing = node;
+                    break;
+                }
+                last = node;
+                binCount++;
+            }
+        }
+
+        if (existing != null) {
+            V oldValue = existing.getValue();
+            if (!onlyIfAbsent || oldValue == null) {
+                setNodeValue(existing, value);
+            }
+            afterNodeAccess(existing);
+            return oldValue;
+        }
+
+        addNode(tab, index, last, binCount, hash, key, value);
+        return null;
+    }
+
+    /**
+     * Adds a node for a key that has just been looked up and not found, then grows the table
+     * or advances an incremental resize. The table must not have changed since the lookup.
+     *
+     * @param tab the table holding the bin of the key.
+     * @param index the index of the bin.
+     * @param last the last node of the chain, or null if the bin is empty or a tree.
+     * @param binCount the number of nodes in the chain.
+     * @param hash the hash of the key.
+     * @param key the key of the mapping.
+     * @param value the value of the mapping.
+     */
+    private void addNode(Node<K, V>[] tab, int index, Node<K, V> last, int binCount, int hash, K key, V value) {
+        Node<K, V> first = tab[index];
+
+        if (first == null) {
+            tab[index] = newNode(hash, key, value);
+        } else if (first instanceof TreeNode<K, V> head) {
+            TreeNode<K, V> root = head.root();
+            TreeNode.moveRootToFront(head, root);
+            tab[index] = TreeNode.insert(root, newTreeNode(hash, key, value));
+        } else {
+            last.setNext(newNode(hash, key, value));
+            if (binCount >= TREEIFY_THRESHOLD) {
+                treeifyBin(tab, index);
+            }
+        }
+
+        size++;
+        modCount++;
+        if (bloomFilter != null) {
+            bloomFilter.add(hash);
+            bloomHashes++;
+        }
+        if (valueIndex != null) {
+            indexValue(key, value);
+        }
+        if (size > threshold) {
+            resize();
+        } else if (oldTable != null) {
+            rehashStep(REHASH_STEP);
+        }
+        if (bloomHashes > bloomCapacity && oldTable == null) {
+            // Keys keep changing at about the same size, so no resize drops the bits of the removed ones.
+            rebuildBloomFilter();
+        }
+        afterNodeInsertion();
+    }
+
+    /**
+     * Returns the value of the specified key, computing and adding it first if the key is not mapped yet
+     * or is mapped to null. The bin of the key is looked up only once.
+     *
+     * @param key key with which the value is to be associated.
+     * @param mappingFunction the function that computes the value from the key.
+     * @return the current or computed value, or null if the function returned null.
+     * @throws ConcurrentModificationException if the function structurally modified the map.
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        int hash = hash(key);
+        Node<K, V>[] tab = tableFor(hash);
+        int index = indexFor(hash, tab.length);
+        Node<K, V> first = tab[index];
+        Node<K, V> existing = null;
+        Node<K, V> last = null;
+        int binCount = 0;
+
+        if (first instanceof TreeNode<K, V> head) {
+            existing = head.root().find(hash, key, null);
+        } else {
+            for (Node<K, V> node = first; node != null; node = node.getNext()) {
+                if (matches(node, hash, key)) {
+                    existing = node;
+                    break;
+                }
+                last = node;
+                binCount++;
+            }
+        }
+
+        if (existing != null && existing.getValue() != null) {
+            afterNodeAccess(existing);
+            return existing.getValue();
+        }
+
+        int expectedModCount = modCount;
+        V value = mappingFunction.apply(key);
+        checkModCount(expectedModCount);
+        if (value == null) {
+            return null;
+        }
+        if (existing != null) {
+            setNodeValue(existing, value);
+            afterNodeAccess(existing);
+        } else {
+            addNode(tab, index, last, binCount, hash, key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Replaces the non-null value of the specified key with the result of the given function,
+     * or removes the mapping if the function returns null.
+     *
+     * @param key key whose value is to be recomputed.
+     * @param remappingFunction the function that computes the new value from the key and the current value.
+     * @return the new value, or null if the key is not mapped or its mapping was removed.
+     * @throws ConcurrentModificationException if the function structurally modified the map.
+     */
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        int hash = hash(key);
+        Node<K, V> node = getNode(hash, key);
+        if (node == null || node.getValue() == null) {
+            return null;
+        }
+
+        int expectedModCount = modCount;
+        V value = remappingFunction.apply(key, node.getValue());
+        checkModCount(expectedModCount);
+        if (value == null) {
+            removeNode(hash, key, true);
+        } else {
+            setNodeValue(node, value);
+            afterNodeAccess(node);
+        }
+        return value;
+    }
+
+    /**
+     * Replaces the value of the specified key with the result of the given function, adding
+     * the mapping if the key is not mapped yet, or removes the mapping if the function returns null.
+     * The bin of the key is looked up only once, unless the mapping is removed.
+     *
+     * @param key key whose value is to be computed.
+     * @param remappingFunction the function that computes the new value from the key and the current value, or null.
+     * @return the new value, or null if there is no mapping for the key anymore.
+     * @throws ConcurrentModificationException if the function structurally modified the map.
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        int hash = hash(key);
+        Node<K, V>[] tab = tableFor(hash);
+        int index = indexFor(hash, tab.length);
+        Node<K, V> first = tab[index];
+        Node<K, V> existing = null;
+        Node<K, V> last = null;
+        int binCount = 0;
+
+        if (first instanceof TreeNode<K, V> head) {
+            existing = head.root().find(hash, key, null);
+        } else {
+            for (Node<K, V> node = first; node != null; node = node.getNext()) {
+                if (matches(node, hash, key)) {
+                    existing = node;
+                    break;
+                }
+                last = node;
+                binCount++;
+            }
+        }
+
+        int expectedModCount = modCount;
+        V value = remappingFunction.apply(key, existing == null ? null : existing.getValue());
+        checkModCount(expectedModCount);
+        if (existing != null) {
+            if (value == null) {
+                removeNode(hash, key, true);
+            } else {
+                setNodeValue(existing, value);
+                afterNodeAccess(existing);
+            }
+        } else if (value != null) {
+            addNode(tab, index, last, binCount, hash, key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Associates the specified value with the specified key, if the key is not mapped yet or is mapped to null,
+     * and otherwise combines the current value with it, removing the mapping if the result is null.
+     * The bin of the key is looked up only once, unless the mapping is removed.
+     *
+     * @param key key with which the value is to be associated.
+     * @param value the value to add or to combine with the current value. Must not be null.
+     * @param remappingFunction the function that combines the current value with the given value.
+     * @return the new value, or null if the mapping was removed.
+     * @throws NullPointerException if the value is null.
+     * @throws ConcurrentModificationException if the function structurally modified the map.
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(remappingFunction);
+        int hash = hash(key);
+        Node<K, V>[] tab = tableFor(hash);
+        int index = indexFor(hash, tab.length);
+        Node<K, V> first = tab[index];
+        Node<K, V> existing = null;
+        Node<K, V> last = null;
+        int binCount = 0;
+
+        if (first instanceof TreeNode<K, V> head) {
+            existing = head.root().find(hash, key, null);
+        } else {
+            for (Node<K, V> node = first; node != null; node = node.getNext()) {
+                if (matches(node, hash, key)) {
+                    existing = node;
+                    break;
+                }
+                last = node;
+                binCount++;
+            }
+        }
+
+        if (existing == null) {
+            addNode(tab, index, last, binCount, hash, key, value);
+            return value;
+        }
+
+        V newValue = value;
+        if (existing.getValue() != null) {
+            int expectedModCount = modCount;
+            newValue = remappingFunction.apply(existing.getValue(), value);
+            checkModCount(expectedModCount);
+        }
+        if (newValue == null) {
+            removeNode(hash, key, true);
+        } else {
+            setNodeValue(existing, newValue);
+            afterNodeAccess(existing);
+        }
+        return newValue;
+    }
+
+    /**
+     * Replaces the value of the specified key, if the key is mapped.
+     *
+     * @param key key whose value is to be replaced.
+     * @param value the new value.
+     * @return the previous value associated with the key, or null if there was no mapping for the key.
+     */
+    @Override
+    public V replace(K key, V value) {
+        Node<K, V> node = getNode(key);
+        if (node == null) {
+            return null;
+        }
+        V oldValue = setNodeValue(node, value);
+        afterNodeAccess(node);
+        return oldValue;
+    }
+
+    /**
+     * Replaces the value of the specified key, if the key is mapped to the given old value.
+     *
+     * @param key key whose value is to be replaced.
+     * @param oldValue the value the key is expected to be mapped to.
+     * @param newValue the new value.
+     * @return true, if the value was replaced.
+     */
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Node<K, V> node = getNode(key);
+        if (node == null || !Objects.equals(node.getValue(), oldValue)) {
+            return false;
+        }
+        setNodeValue(node, newValue);
+        afterNodeAccess(node);
+        return true;
+    }
+
+    /**
+     * Creates a plain node for a new mapping. LinkedCustomHashMap overrides this and the other
+     * node factories below to link every node into its iteration order.
+     *
+     * @param hash the hash of the key.
+     * @param key the key of the mapping.
+     * @param value the value of the mapping.
+     * @return the new node.
+     */
+    Node<K, V> newNode(int hash, K key, V value) {
+        return new Node<>(hash, key, value);
+    }
+
+    /**
+     * Creates a tree node for a new mapping added to a tree bin.
+     *
+     * @param hash the hash of the key.
+     * @param key the key of the mapping.
+     * @param value the value of the mapping.
+     * @return the new tree node.
+     */
+    TreeNode<K, V> newTreeNode(int hash, K key, V value) {
+        return new TreeNode<>(hash, key, value);
+    }
+
+    /**
+     * Creates a plain node that takes the place of the given node when its bin is converted into a chain.
+     *
+     * @param node the node to replace.
+     * @return the new node holding the same mapping.
+     */
+    Node<K, V> replacementNode(Node<K, V> node) {
+        return new Node<>(node.hash, node.getKey(), node.getValue());
+    }
+
+    /**
+     * Creates a tree node that takes the place of the given node when its bin is converted into a tree.
+     *
+     * @param node the node to replace.
+     * @return the new tree node holding the same mapping.
+     */
+    TreeNode<K, V> replacementTreeNode(Node<K, V> node) {
+        return new TreeNode<>(node.hash, node.getKey(), node.getValue());
+    }
+
+    /**
+     * Called after the mapping of an existing node has been read or replaced.
+     *
+     * @param node the accessed node.
+     */
+    void afterNodeAccess(Node<K, V> node) {
+    }
+
+    /**
+     * Called after a new mapping has been added.
+     */
+    void afterNodeInsertion() {
+    }
+
+    /**
+     * Called after a node has been removed from its bin.
+     *
+     * @param node the removed node.
+     */
+    void afterNodeRemoval(Node<K, V> node) {
+    }
+
+    /**
+     * Checks if large tables may be resized in parallel. Subclasses whose node replacement
+     * touches nodes of other bins must return false.
+     *
+     * @return true, if bins may be moved by several threads at once.
+     */
+    boolean supportsParallelResize() {
+        return true;
+    }
+
+    /**
+     * Replaces the chain in the given bin with a balanced tree of the same entries.
+     * If the table is still small, it is resized instead, since long chains in a small
+     * table are more likely caused by the table being too small than by colliding hashes.
+     *
+     * @param tab the table holding the bin.
+     * @param index the index of the bin.
+     */
+    private void treeifyBin(Node<K, V>[] tab, int index) {
+        if (tab.length < MIN_TREEIFY_CAPACITY) {
+            resize();
+            return;
+        }
+
+        TreeNode<K, V> head = null;
+        TreeNode<K, V> tail = null;
+        for (Node<K, V> node = tab[index]; node != null; node = node.getNext()) {
+            TreeNode<K, V> treeNode = replacementTreeNode(node);
+            if (tail == null) {
+                head = treeNode;
+            } else {
+                treeNode.prev = tail;
+                tail.setNext(treeNode);
+            }
+            tail = treeNode;
+        }
+
+        tab[index] = TreeNode.treeify(head);
+    }
+
+    /**
+     * Replaces a list of tree nodes with a chain of plain nodes holding the same entries.
+     *
+     * @param head the first tree node of the list.
+     * @return the first node of the new chain.
+     */
+    private Node<K, V> untreeify(TreeNode<K, V> head) {
+        Node<K, V> first = null;
+        Node<K, V> last = null;
+
+        for (Node<K, V> node = head; node != null; node = node.getNext()) {
+            Node<K, V> plain = replacementNode(node);
+            if (last == null) {
+                first = plain;
+            } else {
+                last.setNext(plain);
+            }
+            last = plain;
+        }
+
+        return first;
+    }
+
+    /**
+     * Grows the hash table to the length chosen by the growth policy and moves all existing nodes into it.
+     *
+     * @throws IllegalStateException if the growth policy does not return a larger length.
+     */
+    private void resize() {
+        int length = table.length;
+        if (length >= Hashing.MAXIMUM_CAPACITY) {
+            return;
+        }
+
+        int grown = growthPolicy.grow(length);
+        if (grown <= length) {
+            throw new IllegalStateException("Growth policy must return a larger capacity");
+        }
+        resize(Math.min(grown, Hashing.MAXIMUM_CAPACITY));
+    }
+
+    /**
+     * Grows the hash table to the given length and moves all existing nodes into the new, larger table.
+     * Doubling a power-of-two table splits every bin in two, which allows the incremental and the parallel
+     * resize; any other growth places every node again by its cached hash.
+     * In incremental mode the nodes are only moved by later calls to {@link #rehashStep(int)}.
+     *
+     * @param newCapacity the new table length, greater than the current one.
+     */
+    private void resize(int newCapacity) {
+        if (oldTable != null) {
+            rehashStep(oldTable.length);
+        }
+
+        if (newCapacity != table.length * 2 || !isPowerOfTwo(table.length)) {
+            rebuild(newCapacity);
+            return;
+        }
+
+        Node<K, V>[] newTable = (Node<K, V>[]) new Node[newCapacity];
+
+        if (incrementalResize) {
+            oldTable = table;
+            rehashIndex = 0;
+            setTable(newTable);
+            return;
+        }
+
+        transferAll(table, newTable);
+        setTable(newTable);
+    }
+
+    /**
+     * Moves all nodes into a new table of any length, placing every node by its cached hash.
+     * Nodes of tree bins are copied as plain nodes, and bins that become long are treeified again.
+     *
+     * @param newCapacity the new table length.
+     */
+    private void rebuild(int newCapacity) {
+        Node<K, V>[] newTable = (Node<K, V>[]) new Node[newCapacity];
+
+        for (Node<K, V> bin : table) {
+            for (Node<K, V> node = bin, next; node != null; node = next) {
+                next = node.next;
+                Node<K, V> plain = node instanceof TreeNode ? replacementNode(node) : node;
+                plain.next = null;
+                reinsert(newTable, plain);
+            }
+        }
+
+        setTable(newTable);
+    }
+
+    /**
+     * Adds a node whose key is not in the table yet to the end of its bin, without comparing keys.
+     *
+     * @param tab the table to add the node to.
+     * @param node the plain node to add.
+     */
+    private void reinsert(Node<K, V>[] tab, Node<K, V> node) {
+        int index = indexFor(node.hash, tab.length);
+        Node<K, V> last = tab[index];
+
+        if (last == null) {
+            tab[index] = node;
+            return;
+        }
+
+        if (last instanceof TreeNode<K, V> root) {
+            tab[index] = TreeNode.insert(root, replacementTreeNode(node));
+            return;
+        }
+
+        int binCount = 1;
+        while (last.next != null) {
+            last = last.next;
+            binCount++;
+        }
+        last.next = node;
+        if (binCount >= TREEIFY_THRESHOLD && tab.length >= MIN_TREEIFY_CAPACITY) {
+            treeifyBin(tab, index);
+        }
+    }
+
+    /**
+     * Moves all bins of the old table into the doubled table. Large tables are split into
+     * ranges of RESIZE_CHUNK_SIZE bins that are moved in parallel; this is safe without locking,
+     * because bin j of the old table only ever moves to bins j and j + oldCapacity.
+     *
+     * @param old the old table.
+     * @param newTable the doubled table.
+     */
+    private void transferAll(Node<K, V>[] old, Node<K, V>[] newTable) {
+        ForkJoinPool pool = resizePool != null ? resizePool : ForkJoinPool.commonPool();
+
+        if (old.length < PARALLEL_RESIZE_THRESHOLD || pool.getParallelism() <= 1 || !supportsParallelResize()) {
+            for (int j = 0; j < old.length; j++) {
+                transferBin(old, j, newTable);
+            }
+            return;
+        }
+
+        pool.invoke(new TransferTask(old, newTable, 0, old.length));
+    }
+
+    /**
+     * TransferTask moves a range of bins of the old table during a parallel resize,
+     * splitting the range in halves until it is at most RESIZE_CHUNK_SIZE bins long.
+     */
+    private final class TransferTask extends RecursiveAction {
+        private final Node<K, V>[] old;
+        private final Node<K, V>[] newTable;
+        private final int from;
+        private final int to;
+
+        /**
+         * Creates a task moving the bins from (inclusive) to (exclusive) of the old table.
+         *
+         * @param old the old table.
+         * @param newTable the doubled table.
+         * @param from the first bin to move.
+         * @param to the bin after the last bin to move.
+         */
+        TransferTask(Node<K, V>[] old, Node<K, V>[] newTable, int from, int to) {
+            this.old = old;
+            this.newTable = newTable;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Moves the bins of the range, or splits it and moves both halves in parallel.
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= RESIZE_CHUNK_SIZE) {
+                for (int j = from; j < to; j++) {
+                    transferBin(old, j, newTable);
+                }
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new TransferTask(old, newTable, from, mid), new TransferTask(old, newTable, mid, to));
+        }
+    }
+
+    /**
+     * TraversalTask performs an action for each node of a range of bins during a parallel bulk operation,
+     * splitting the range in halves until it is at most TRAVERSAL_CHUNK_SIZE bins long.
+     */
+    private final class TraversalTask extends RecursiveAction {
+        private final Node<K, V>[] tab;
+        private final Consumer<Node<K, V>> action;
+        private final int from;
+        private final int to;
+
+        /**
+         * Creates a task visiting the bins from (inclusive) to (exclusive) of the table.
+         *
+         * @param tab the table to walk.
+         * @param action the action to be performed for each node.
+         * @param from the first bin to visit.
+         * @param to the bin after the last bin to visit.
+         */
+        TraversalTask(Node<K, V>[] tab, Consumer<Node<K, V>> action, int from, int to) {
+            this.tab = tab;
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Visits the bins of the range, or splits it and visits both halves in parallel.
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= TRAVERSAL_CHUNK_SIZE) {
+                for (int j = from; j < to; j++) {
+                    for (Node<K, V> node = tab[j]; node != null; node = node.next) {
+                        action.accept(node);
+                    }
+                }
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new TraversalTask(tab, action, from, mid), new TraversalTask(tab, action, mid, to));
+        }
+    }
+
+    /**
+     * Moves up to the given number of bins of the old table into the current table
+     * and finishes the incremental resize once all bins have been moved.
+     * Moving nodes is a structural modification for the iterators and spliterators.
+     *
+     * @param bins the maximum number of bins to move.
+     */
+    private void rehashStep(int bins) {
+        Node<K, V>[] old = oldTable;
+        int end = Math.min(rehashIndex + bins, old.length);
+        modCount++;
+
+        for (int j = rehashIndex; j < end; j++) {
+            if (bloomFilter != null) {
+                for (Node<K, V> node = old[j]; node != null; node = node.next) {
+                    bloomFilter.add(node.hash);
+                    bloomHashes++;
+                }
+            }
+            transferBin(old, j, table);
+        }
+
+        rehashIndex = end;
+        if (end == old.length) {
+            oldTable = null;
+            oldBloomFilter = null;
+            rehashIndex = 0;
+        }
+    }
+
+    /**
+     * Moves all nodes of a bin of the old table into the doubled table. Since the table is
+     * doubled, every node either stays at index j or moves to j + oldCapacity, which is decided
+     * by a single bit of its cached hash. The order of the chain is kept in both halves.
+     *
+     * @param old the old table.
+     * @param j the index of the bin in the old table.
+     * @param newTable the doubled table.
+     */
+    private void transferBin(Node<K, V>[] old, int j, Node<K, V>[] newTable) {
+        Node<K, V> node = old[j];
+        old[j] = null;
+
+        if (node instanceof TreeNode<K, V> root) {
+            splitTreeBin(root, newTable, j, old.length);
+            return;
+        }
+
+        int oldCapacity = old.length;
+        Node<K, V> loHead = null;
+        Node<K, V> loTail = null;
+        Node<K, V> hiHead = null;
+        Node<K, V> hiTail = null;
+
+        while (node != null) {
+            Node<K, V> nextNode = node.next;
+            node.next = null;
+            if ((node.hash & oldCapacity) == 0) {
+                if (loTail == null) {
+                    loHead = node;
+                } else {
+                    loTail.next = node;
+                }
+                loTail = node;
+            } else {
+                if (hiTail == null) {
+                    hiHead = node;
+                } else {
+                    hiTail.next = node;
+                }
+                hiTail = node;
+            }
+            node = nextNode;
+        }
+
+        newTable[j] = loHead;
+        newTable[j + oldCapacity] = hiHead;
+    }
+
+    /**
+     * Checks if the node holds the specified key. The cached hashes are compared first,
+     * so equals() is only called for nodes whose hash matches.
+     *
+     * @param node the node to check.
+     * @param hash the hash of the key.
+     * @param key the key to look for.
+     * @return true, if the node holds the key.
+     */
+    private static boolean matches(Node<?, ?> node, int hash, Object key) {
+        if (node.hash != hash) {
+            return false;
+        }
+        Object k = node.getKey();
+        return k == key || k.equals(key);
+    }
+
+    /**
+     * Splits the tree nodes of an old bin between the two bins of the doubled table they can
+     * move to, index and index + oldCapacity, and builds a tree or a chain for each half.
+     *
+     * @param head the first tree node of the old bin.
+     * @param newTable the doubled table.
+     * @param index the index of the old bin.
+     * @param oldCapacity the length of the old table.
+     */
+    private void splitTreeBin(TreeNode<K, V> head, Node<K, V>[] newTable, int index, int oldCapacity) {
+        TreeNode<K, V> loHead = null;
+        TreeNode<K, V> loTail = null;
+        TreeNode<K, V> hiHead = null;
+        TreeNode<K, V> hiTail = null;
+        int loCount = 0;
+        int hiCount = 0;
+
+        for (TreeNode<K, V> node = head, next; node != null; node = next) {
+            next = (TreeNode<K, V>) node.getNext();
+            node.setNext(null);
+            if ((node.hash & oldCapacity) == 0) {
+                node.prev = loTail;
+                if (loTail == null) {
+                    loHead = node;
+                } else {
+                    loTail.setNext(node);
+                }
+                loTail = node;
+                loCount++;
+            } else {
+                node.prev = hiTail;
+                if (hiTail == null) {
+                    hiHead = node;
+                } else {
+                    hiTail.setNext(node);
+                }
+                hiTail = node;
+                hiCount++;
+            }
+        }
+
+        if (loHead != null) {
+            newTable[index] = loCount <= UNTREEIFY_THRESHOLD ? untreeify(loHead) : TreeNode.treeify(loHead);
+        }
+        if (hiHead != null) {
+            newTable[index + oldCapacity] = hiCount <= UNTREEIFY_THRESHOLD ? untreeify(hiHead) : TreeNode.treeify(hiHead);
+        }
+    }
+
+    /**
+     * Removes the mapping for the specified key from the map.
+     *
+     * @param key key whose mapping is to be removed from the map.
+     * @return the previous value associated with the key, or null if there was no mapping for the key.
+     */
+    @Override
+    public V remove(Object key) {
+        Node<K, V> node = removeNode(key, true);
+        return node == null ? null : node.getValue();
+    }
+
+    /**
+     * Removes the node holding the specified key. Only a movable removal may compact the map
+     * afterwards: iterators remove non-movably, so that no node they have not visited yet
+     * is moved to a bin or a list position they have already passed.
+     *
+     * @param key key whose mapping is to be removed from the map.
+     * @param movable true, to let the removal shrink the table, advance an incremental resize
+     *                or restructure the tree bin it removes from.
+     * @return the removed node, or null if there was no mapping for the key.
+     */
+    Node<K, V> removeNode(Object key, boolean movable) {
+        return removeNode(hash((K) key), key, movable);
+    }
+
+    /**
+     * Removes the node holding the specified key with the given hash.
+     *
+     * @param hash the hash of the key.
+     * @param key key whose mapping is to be removed from the map.
+     * @param movable true, to let the removal shrink the table, advance an incremental resize
+     *                or restructure the tree bin it removes from.
+     * @return the removed node, or null if there was no mapping for the key.
+     */
+    private Node<K, V> removeNode(int hash, Object key, boolean movable) {
+        Node<K, V>[] tab = tableFor(hash);
+        int index = indexFor(hash, tab.length);
+        Node<K, V> node = tab[index];
+        Node<K, V> prevNode = null;
+
+        if (node instanceof TreeNode<K, V> head) {
+            TreeNode<K, V> root = head.root();
+            TreeNode<K, V> treeNode = root.find(hash, key, null);
+            if (treeNode == null) {
+                return null;
+            }
+            removeTreeNode(tab, index, root, treeNode, movable);
+            afterRemoval(treeNode, movable);
+            return treeNode;
+        }
+
+        while (node != null) {
+            if (matches(node, hash, key)) {
+                if (prevNode == null) {
+                    tab[index] = node.getNext();
+                } else {
+                    prevNode.setNext(node.getNext());
+                }
+                afterRemoval(node, movable);
+                return node;
+            }
+            prevNode = node;
+            node = node.getNext();
+        }
+
+        return null;
+    }
+
+    /**
+     * Updates the size and the modification count after a node has been unlinked from its bin
+     * and, for a movable removal, advances an incremental resize or shrinks a sparse table.
+     *
+     * @param node the removed node.
+     * @param movable true, if the removal may move other nodes.
+     */
+    private void afterRemoval(Node<K, V> node, boolean movable) {
+        size--;
+        modCount++;
+        if (valueIndex != null) {
+            unindexValue(node.getKey(), node.getValue());
+        }
+        afterNodeRemoval(node);
+        if (movable) {
+            if (oldTable != null) {
+                rehashStep(REHASH_STEP);
+            }
+            shrinkIfSparse();
+        }
+    }
+
+    /**
+     * Halves the table once the size falls below shrinkThreshold, unless the table is
+     * already at its minimum length or an incremental resize is still in progress.
+     */
+    private void shrinkIfSparse() {
+        if (size < shrinkThreshold && oldTable == null && table.length > minTableLength) {
+            shrink(Math.max(table.length / 2, minTableLength));
+        }
+    }
+
+    /**
+     * Shrinks the table to the smallest length that holds the current mappings without resizing.
+     * Unlike the automatic shrinking in remove(), this may go below the initial capacity.
+     */
+    public void trimToSize() {
+        if (oldTable != null) {
+            rehashStep(oldTable.length);
+        }
+
+        int capacity = capacityFor(size, loadFactor);
+        if (capacity < table.length) {
+            shrink(capacity);
+        }
+    }
+
+    /**
+     * Moves all nodes into a smaller table. If both lengths are powers of two, every new bin j
+     * collects the old bins j, j + newCapacity, j + 2 * newCapacity and so on, in that order.
+     * Tree bins are merged as plain nodes, and the merged bin is treeified again if it is still long.
+     *
+     * @param newCapacity the new table length, smaller than the current one.
+     */
+    private void shrink(int newCapacity) {
+        if (!isPowerOfTwo(table.length) || !isPowerOfTwo(newCapacity)) {
+            rebuild(newCapacity);
+            return;
+        }
+
+        Node<K, V>[] old = table;
+        Node<K, V>[] newTable = (Node<K, V>[]) new Node[newCapacity];
+
+        for (int j = 0; j < newCapacity; j++) {
+            Node<K, V> head = null;
+            Node<K, V> tail = null;
+            int binCount = 0;
+
+            for (int i = j; i < old.length; i += newCapacity) {
+                for (Node<K, V> node = old[i], next; node != null; node = next) {
+                    next = node.next;
+                    Node<K, V> plain = node instanceof TreeNode ? replacementNode(node) : node;
+                    plain.next = null;
+                    if (tail == null) {
+                        head = plain;
+                    } else {
+                        tail.next = plain;
+                    }
+                    tail = plain;
+                    binCount++;
+                }
+            }
+
+            newTable[j] = head;
+            if (binCount > TREEIFY_THRESHOLD && newCapacity >= MIN_TREEIFY_CAPACITY) {
+                treeifyBin(newTable, j);
+            }
+        }
+
+        setTable(newTable);
+    }
+
+    /**
+     * Removes a node from the tree bin at the given index. The bin is converted back
+     * into a chain once it becomes small, and the new root is moved to the front of the bin,
+     * unless the removal is not movable; then the nodes keep their list order and lookups
+     * reach the root through the parent links of the first node.
+     *
+     * @param tab the table holding the bin.
+     * @param index the index of the bin.
+     * @param root the root of the bin's tree.
+     * @param node the node to remove.
+     * @param movable true, to let the removal untreeify the bin or reorder its list.
+     */
+    private void removeTreeNode(Node<K, V>[] tab, int index, TreeNode<K, V> root, TreeNode<K, V> node,
+                                boolean movable) {
+        TreeNode<K, V> prev = node.prev;
+        TreeNode<K, V> next = (TreeNode<K, V>) node.getNext();
+        if (prev == null) {
+            tab[index] = next;
+        } else {
+            prev.setNext(next);
+        }
+        if (next != null) {
+            next.prev = prev;
+        }
+        node.prev = null;
+        node.setNext(null);
+
+        TreeNode<K, V> head = (TreeNode<K, V>) tab[index];
+        if (head == null) {
+            return;
+        }
+
+        root = TreeNode.remove(root, node);
+        if (!movable) {
+            return;
+        }
+        if (root.height <= 3 && head.count() <= UNTREEIFY_THRESHOLD) {
+            tab[index] = untreeify(head);
+        } else {
+            tab[index] = TreeNode.moveRootToFront(head, root);
+        }
+    }
+
+    /**
+     * Copies all the mappings from the specified map to this map.
+     * The table is grown once up front, so that no resize happens while the mappings are added.
+     *
+     * @param m mappings to be stored in this map.
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        if (m.isEmpty()) {
+            return;
+        }
+
+        ensureCapacity((int) Math.min((long) size + m.size(), Integer.MAX_VALUE));
+        for (Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Grows the table, if needed, so that the map can hold the specified number of mappings
+     * without resizing. An empty map allocates the new table directly; a non-empty power-of-two
+     * table is doubled as many times as needed, and any other table is rebuilt once.
+     *
+     * @param minCapacity the number of mappings the map should hold without resizing. Must be non-negative.
+     * @throws IllegalArgumentException if capacity less than 0.
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new IllegalArgumentException("Capacity can't be negative");
+        }
+
+        int capacity = capacityFor(minCapacity, loadFactor);
+        if (capacity <= table.length) {
+            return;
+        }
+
+        if (size == 0) {
+            oldTable = null;
+            rehashIndex = 0;
+            setTable((Node<K, V>[]) new Node[capacity]);
+            return;
+        }
+
+        if (!isPowerOfTwo(table.length)) {
+            resize(capacity);
+            return;
+        }
+        while (table.length < capacity) {
+            resize(table.length * 2);
+        }
+    }
+
+    /**
+     * Removes all the mappings from the map.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(table, null);
+        oldTable = null;
+        rehashIndex = 0;
+        size = 0;
+        modCount++;
+        if (valueIndex != null) {
+            valueIndex.clear();
+        }
+        if (bloomFilter != null) {
+            bloomFilter.clear();
+            oldBloomFilter = null;
+            bloomHashes = 0;
+        }
+    }
+
+    /**
+     * Performs the given action for each mapping of the map, walking the bins of the table directly.
+     *
+     * @param action the action to be performed for each mapping.
+     * @throws ConcurrentModificationException if the map is structurally modified during the walk.
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (Node<K, V>[] tab = oldTable != null ? oldTable : table; tab != null; tab = nextTable(tab)) {
+            for (Node<K, V> node : tab) {
+                for (; node != null; node = node.next) {
+                    action.accept(node.getKey(), node.getValue());
+                }
+            }
+        }
+        checkModCount(expectedModCount);
+    }
+
+    /**
+     * Performs the given action for each key of the map, walking the bins of the table directly.
+     *
+     * @param action the action to be performed for each key.
+     * @throws ConcurrentModificationException if the map is structurally modified during the walk.
+     */
+    public void forEachKey(Consumer<? super K> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (Node<K, V>[] tab = oldTable != null ? oldTable : table; tab != null; tab = nextTable(tab)) {
+            for (Node<K, V> node : tab) {
+                for (; node != null; node = node.next) {
+                    action.accept(node.getKey());
+                }
+            }
+        }
+        checkModCount(expectedModCount);
+    }
+
+    /**
+     * Performs the given action for each value of the map, walking the bins of the table directly.
+     *
+     * @param action the action to be performed for each value.
+     * @throws ConcurrentModificationException if the map is structurally modified during the walk.
+     */
+    public void forEachValue(Consumer<? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (Node<K, V>[] tab = oldTable != null ? oldTable : table; tab != null; tab = nextTable(tab)) {
+            for (Node<K, V> node : tab) {
+                for (; node != null; node = node.next) {
+                    action.accept(node.getValue());
+                }
+            }
+        }
+        checkModCount(expectedModCount);
+    }
+
+    /**
+     * Replaces the value of each mapping with the result of the given function, walking the bins of the table directly.
+     *
+     * @param function the function that computes the new value from the key and the current value.
+     * @throws ConcurrentModificationException if the map is structurally modified during the walk.
+     */
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        int expectedModCount = modCount;
+        for (Node<K, V>[] tab = oldTable != null ? oldTable : table; tab != null; tab = nextTable(tab)) {
+            for (Node<K, V> node : tab) {
+                for (; node != null; node = node.next) {
+                    setNodeValue(node, function.apply(node.getKey(), node.getValue()));
+                }
+            }
+        }
+        checkModCount(expectedModCount);
+    }
+
+    /**
+     * Performs the given action for each mapping of the map, in parallel once the map holds
+     * at least parallelismThreshold mappings. The action may then be called from several threads
+     * at once and in no particular order.
+     *
+     * @param parallelismThreshold the number of mappings from which the walk runs in parallel.
+     * @param action the action to be performed for each mapping.
+     * @throws ConcurrentModificationException if the map is structurally modified during the walk.
+     */
+    public void forEach(long parallelismThreshold, BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        if (size < parallelismThreshold) {
+            forEach(action);
+        } else {
+            forEachNodeInParallel(node -> action.accept(node.getKey(), node.getValue()));
+        }
+    }
+
+    /**
+     * Performs the given action for each key of the map, in parallel once the map holds
+     * at least parallelismThreshold mappings. The action may then be called from several threads
+     * at once and in no particular order.
+     *
+     * @param parallelismThreshold the number of mappings from which the walk runs in parallel.
+     * @param action the action to be performed for each key.
+     * @throws ConcurrentModificationException if the map is structurally modified during the walk.
+     */
+    public void forEachKey(long parallelismThreshold, Consumer<? super K> action) {
+        Objects.requireNonNull(action);
+        if (size < parallelismThreshold) {
+            forEachKey(action);
+        } else {
+            forEachNodeInParallel(node -> action.accept(node.getKey()));
+        }
+    }
+
+    /**
+     * Performs the given action for each value of the map, in parallel once the map holds
+     * at least parallelismThreshold mappings. The action may then be called from several threads
+     * at once and in no particular order.
+     *
+     * @param parallelismThreshold the number of mappings from which the walk runs in parallel.
+     * @param action the action to be performed for each value.
+     * @throws ConcurrentModificationException if the map is structurally modified during the walk.
+     */
+    public void forEachValue(long parallelismThreshold, Consumer<? super V> action) {
+        Objects.requireNonNull(action);
+        if (size < parallelismThreshold) {
+            forEachValue(action);
+        } else {
+            forEachNodeInParallel(node -> action.accept(node.getValue()));
+        }
+    }
+
+    /**
+     * Replaces the value of each mapping with the result of the given function, in parallel once
+     * the map holds at least parallelismThreshold mappings. The function may then be called from
+     * several threads at once and in no particular order. With the value index it always runs sequentially.
+     *
+     * @param parallelismThreshold the number of mappings from which the walk runs in parallel.
+     * @param function the function that computes the new value from the key and the current value.
+     * @throws ConcurrentModificationException if the map is structurally modified during the walk.
+     */
+    public void replaceAll(long parallelismThreshold, BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        if (size < parallelismThreshold || valueIndex != null) {
+            replaceAll(function);
+        } else {
+            forEachNodeInParallel(node -> setNodeValue(node, function.apply(node.getKey(), node.getValue())));
+        }
+    }
+
+    /**
+     * Returns the table to walk after the given one: the current table after the old table
+     * of an incremental resize, and null after the current table.
+     *
+     * @param tab the table that has been walked.
+     * @return the next table to walk, or null if there is none.
+     */
+    private Node<K, V>[] nextTable(Node<K, V>[] tab) {
+        return tab == table ? null : table;
+    }
+
+    /**
+     * Throws ConcurrentModificationException if the map has been structurally modified.
+     *
+     * @param expectedModCount the modCount of the map when the walk started.
+     * @throws ConcurrentModificationException if modCount differs from expectedModCount.
+     */
+    private void checkModCount(int expectedModCount) {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Performs the given action for each node of the map, walking ranges of TRAVERSAL_CHUNK_SIZE bins
+     * in the common pool.
+     *
+     * @param action the action to be performed for each node.
+     * @throws ConcurrentModificationException if the map is structurally modified during the walk.
+     */
+    private void forEachNodeInParallel(Consumer<Node<K, V>> action) {
+        int expectedModCount = modCount;
+        for (Node<K, V>[] tab : tables()) {
+            ForkJoinPool.commonPool().invoke(new TraversalTask(tab, action, 0, tab.length));
+        }
+        checkModCount(expectedModCount);
+    }
+
+    /**
+     * Returns a set view of all keys contained in this map.
+     * The set is backed by the map, so changes to the map are reflected in the set.
+     *
+     * @return set view of all keys contained in this map.
+     */
+    @Override
+    public Set<K> keySet() {
+        Set<K> ks = keySet;
+        return ks != null ? ks : (keySet = new KeySet());
+    }
+
+    /**
+     * Returns a collection view of all values contained in this map.
+     * The collection is backed by the map, so changes to the map are reflected in the collection.
+     *
+     * @return collection view of all values contained in this map.
+     */
+    @Override
+    public Collection<V> values() {
+        Collection<V> vs = values;
+        return vs != null ? vs : (values = new Values());
+    }
+
+    /**
+     * Returns a set view of all key-value pairs (entries) contained in this map.
+     * The set is backed by the map, so changes to the map are reflected in the set.
+     *
+     * @return set view of all key-value pairs contained in this map.
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> es = entrySet;
+        return es != null ? es : (entrySet = new EntrySet());
+    }
+
+    /**
+     * Returns an iterator over all key-value pairs contained in this map.
+     *
+     * @return an iterator over the entries in the map.
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator();
+    }
+
+    /**
+     * Returns a spliterator over all key-value pairs contained in this map.
+     *
+     * @return a spliterator over the entries in the map.
+     */
+    @Override
+    public Spliterator<Entry<K, V>> spliterator() {
+        return entrySet().spliterator();
+    }
+
+    /**
+     * Returns a spliterator over the elements of a view, which splits the table by index ranges.
+     * LinkedCustomHashMap overrides it to report its iteration order.
+     *
+     * @param view the view whose elements are returned.
+     * @param element the function that maps a node to the element of the view.
+     * @param characteristics the characteristics of the view besides SIZED.
+     * @param <T> the type of the elements of the view.
+     * @return a spliterator over the elements of the view.
+     */
+    <T> Spliterator<T> viewSpliterator(Collection<T> view, Function<Node<K, V>, T> element, int characteristics) {
+        return new TableSpliterator<>(element, characteristics, 0, -1, 0, 0);
+    }
+
+    /**
+     * Returns the statistics of the Bloom filter: how many lookups of unmapped keys it rejected
+     * and how many it let through. Lookups that find their key are not counted.
+     *
+     * @return the Bloom filter statistics.
+     * @throws IllegalStateException if the Bloom filter is disabled.
+     */
+    public BloomFilterStats bloomFilterStats() {
+        if (bloomFilter == null) {
+            throw new IllegalStateException("Bloom filter is disabled");
+        }
+        return new BloomFilterStats(bloomRejections, bloomFalsePositives, bloomFilter.bitCount());
+    }
+
+    /**
+     * Returns the entry handed out for a node by the entry iterators and spliterators:
+     * the node itself, or a wrapper that keeps the value index up to date.
+     *
+     * @param node the node of the mapping.
+     * @return the entry of the mapping.
+     */
+    private Entry<K, V> entryFor(Node<K, V> node) {
+        return valueIndex == null ? node : new IndexedEntry(node);
+    }
+
+    /**
+     * Returns an iterator over the nodes of the map, which backs the iterators of all views.
+     * LinkedCustomHashMap overrides it to walk the nodes in its iteration order.
+     *
+     * @return an iterator over the nodes in the map.
+     */
+    Iterator<Node<K, V>> nodeIterator() {
+        return new TableIterator();
+    }
+
+    /**
+     * The KeySet inner class is the live key set view of the map.
+     */
+    private final class KeySet extends AbstractSet<K> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CustomHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public void forEach(Consumer<? super K> action) {
+            forEachKey(action);
+        }
+
+        @Override
+        public Spliterator<K> spliterator() {
+            return viewSpliterator(this, Node::getKey, Spliterator.DISTINCT | Spliterator.NONNULL);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            int sizeBefore = size;
+            CustomHashMap.this.remove(o);
+            return size != sizeBefore;
+        }
+    }
+
+    /**
+     * The Values inner class is the live values view of the map.
+     */
+    private final class Values extends AbstractCollection<V> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CustomHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public void forEach(Consumer<? super V> action) {
+            forEachValue(action);
+        }
+
+        @Override
+        public Spliterator<V> spliterator() {
+            return viewSpliterator(this, Node::getValue, 0);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+    }
+
+    /**
+     * The EntrySet inner class is the live entry set view of the map. Its elements are the nodes
+     * of the map themselves, so setValue() on an entry writes through to the map. With the value index
+     * they are wrapped, so that the write goes through the index as well.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CustomHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public Spliterator<Entry<K, V>> spliterator() {
+            return viewSpliterator(this, CustomHashMap.this::entryFor, Spliterator.DISTINCT | Spliterator.NONNULL);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e) || e.getKey() == null) {
+                return false;
+            }
+            Node<K, V> node = getNode(e.getKey());
+            return node != null && Objects.equals(node.getValue(), e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            CustomHashMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+            return true;
+        }
+    }
+
+    /**
+     * The TableIterator inner class walks the bins of the table, and of the old table
+     * while an incremental resize is in progress, returning the nodes of each bin in order.
+     * It fails fast once the map is structurally modified other than through {@link #remove()}.
+     */
+    private final class TableIterator implements Iterator<Node<K, V>> {
+        private final Node<K, V>[][] tabs = tables();
+        private int tab;
+        private int index;
+        private Node<K, V> next;
+        private Node<K, V> current;
+        private int expectedModCount = modCount;
+
+        TableIterator() {
+            advance();
+        }
+
+        /**
+         * Moves next to the first node of the next non-empty bin, or to null if there is none.
+         */
+        private void advance() {
+            while (tab < tabs.length) {
+                Node<K, V>[] t = tabs[tab];
+                while (index < t.length) {
+                    if ((next = t[index++]) != null) {
+                        return;
+                    }
+                }
+                tab++;
+                index = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Node<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            Node<K, V> node = next;
+            if (node == null) {
+                throw new NoSuchElementException();
+            }
+            current = node;
+            next = node.next;
+            if (next == null) {
+                advance();
+            }
+            return node;
+        }
+
+        @Override
+        public void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            removeNode(current.getKey(), false);
+            current = null;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * The TableSpliterator inner class covers a range of bin indexes of the table, counting the bins
+     * of the old table first while an incremental resize is in progress. It splits the range in halves,
+     * so parallel streams walk disjoint parts of the table without copying it. Only a spliterator that
+     * has not been split knows its exact size. It binds to the table on first use and fails fast
+     * once the map is structurally modified after that.
+     *
+     * @param <T> the type of the elements returned.
+     */
+    private final class TableSpliterator<T> implements Spliterator<T> {
+        private final Function<Node<K, V>, T> element;
+        private final int characteristics;
+        private Node<K, V>[][] tabs;
+        private int index;
+        private int fence;
+        private int est;
+        private int expectedModCount;
+        private Node<K, V> current;
+
+        /**
+         * Creates a spliterator over the bins from index to fence.
+         *
+         * @param element the function that maps a node to the returned element.
+         * @param characteristics the characteristics besides SIZED.
+         * @param index the first bin to visit.
+         * @param fence one past the last bin to visit, or -1 to bind to the whole table on first use.
+         * @param est the estimated number of elements.
+         * @param expectedModCount the modCount of the map when the table was bound.
+         */
+        TableSpliterator(Function<Node<K, V>, T> element, int characteristics,
+                         int index, int fence, int est, int expectedModCount) {
+            this.element = element;
+            this.characteristics = characteristics;
+            this.index = index;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        /**
+         * Binds the spliterator to the current tables, if it has not been bound yet.
+         *
+         * @return one past the last bin to visit.
+         */
+        private int getFence() {
+            int hi = fence;
+            if (hi < 0) {
+                tabs = tables();
+                hi = 0;
+                for (Node<K, V>[] tab : tabs) {
+                    hi += tab.length;
+                }
+                fence = hi;
+                est = size;
+                expectedModCount = modCount;
+            }
+            return hi;
+        }
+
+        /**
+         * Returns the head of the bin with the given index across the tables.
+         *
+         * @param i the index of the bin.
+         * @return the first node of the bin, or null if it is empty.
+         */
+        private Node<K, V> bin(int i) {
+            Node<K, V>[] first = tabs[0];
+            return i < first.length ? first[i] : tabs[1][i - first.length];
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int hi = getFence();
+            int lo = index;
+            int mid = (lo + hi) >>> 1;
+            if (lo >= mid || current != null) {
+                return null;
+            }
+
+            TableSpliterator<T> prefix = new TableSpliterator<>(element, characteristics, lo, mid, est >>>= 1,
+                    expectedModCount);
+            prefix.tabs = tabs;
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            while (current != null || index < hi) {
+                if (current == null) {
+                    current = bin(index++);
+                } else {
+                    Node<K, V> node = current;
+                    current = node.next;
+                    action.accept(element.apply(node));
+                    if (modCount != expectedModCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            Node<K, V> node = current;
+            current = null;
+            int i = index;
+            index = hi;
+            while (node != null || i < hi) {
+                if (node == null) {
+                    node = bin(i++);
+                } else {
+                    action.accept(element.apply(node));
+                    node = node.next;
+                }
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            getFence();
+            return est;
+        }
+
+        @Override
+        public int characteristics() {
+            return (fence < 0 || est == size ? Spliterator.SIZED : 0) | characteristics;
+        }
+    }
+
+    /**
+     * The KeyIterator inner class iterates over the keys of the map.
+     */
+    private final class KeyIterator implements Iterator<K> {
+        private final Iterator<Node<K, V>> nodes = nodeIterator();
+
+        @Override
+        public boolean hasNext() {
+            return nodes.hasNext();
+        }
+
+        @Override
+        public K next() {
+            return nodes.next().getKey();
+        }
+
+        @Override
+        public void remove() {
+            nodes.remove();
+        }
+    }
+
+    /**
+     * The ValueIterator inner class iterates over the values of the map.
+     */
+    private final class ValueIterator implements Iterator<V> {
+        private final Iterator<Node<K, V>> nodes = nodeIterator();
+
+        @Override
+        public boolean hasNext() {
+            return nodes.hasNext();
+        }
+
+        @Override
+        public V next() {
+            return nodes.next().getValue();
+        }
+
+        @Override
+        public void remove() {
+            nodes.remove();
+        }
+    }
+
+    /**
+     * The EntryIterator inner class iterates over the entries of the map.
+     */
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private final Iterator<Node<K, V>> nodes = nodeIterator();
+
+        @Override
+        public boolean hasNext() {
+            return nodes.hasNext();
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            return entryFor(nodes.next());
+        }
+
+        @Override
+        public void remove() {
+            nodes.remove();
+        }
+    }
+
+    /**
+     * Bloom filter statistics of a CustomHashMap.
+     *
+     * @param rejections the number of lookups of unmapped keys the filter rejected.
+     * @param falsePositives the number of lookups of unmapped keys the filter let through.
+     * @param bits the number of bits of the current filter.
+     */
+    public record BloomFilterStats(long rejections, long falsePositives, long bits) {
+        /**
+         * Returns the share of lookups of unmapped keys that the filter let through.
+         *
+         * @return the false-positive rate, or 0 if no unmapped key has been looked up.
+         */
+        public double falsePositiveRate() {
+            long misses = rejections + falsePositives;
+            return misses == 0 ? 0 : (double) falsePositives / misses;
+        }
+    }
+
+    /**
+     * The IndexedEntry inner class is the entry of a mapping of a map with the value index.
+     * It reads through to the node, and setValue() replaces the value of the node and its index entry.
+     */
+    private final class IndexedEntry implements Entry<K, V> {
+        private final Node<K, V> node;
+
+        /**
+         * Creates an entry for the given node.
+         *
+         * @param node the node of the mapping.
+         */
+        IndexedEntry(Node<K, V> node) {
+            this.node = node;
+        }
+
+        @Override
+        public K getKey() {
+            return node.getKey();
+        }
+
+        @Override
+        public V getValue() {
+            return node.getValue();
+        }
+
+        @Override
+        public V setValue(V value) {
+            return setNodeValue(node, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return node.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return node.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return node.toString();
+        }
+    }
+
+    /**
+     * Builder collects the settings of a CustomHashMap. Settings that are not given
+     * keep the defaults of {@link CustomHashMap#CustomHashMap()}.
+     *
+     * @param <K> the type of keys maintained by the map.
+     * @param <V> the type of mapped values.
+     */
+    public static final class Builder<K, V> {
+        private int initialCapacity = DEFAULT_CAPACITY;
+        private float loadFactor = LOAD_FACTOR;
+        private GrowthPolicy growthPolicy = GrowthPolicy.doubling();
+        private boolean incrementalResize;
+        private ForkJoinPool resizePool;
+        private boolean valueIndex;
+        private boolean bloomFilter;
+
+        /**
+         * Creates a builder with the default settings.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Sets the initial capacity of the map.
+         *
+         * @param initialCapacity the initial capacity. Must be non-negative.
+         * @return this builder.
+         */
+        public Builder<K, V> initialCapacity(int initialCapacity) {
+            this.initialCapacity = initialCapacity;
+            return this;
+        }
+
+        /**
+         * Sets the load factor of the map.
+         *
+         * @param loadFactor the ratio of size to table length at which the table grows. Must be positive.
+         * @return this builder.
+         */
+        public Builder<K, V> loadFactor(float loadFactor) {
+            this.loadFactor = loadFactor;
+            return this;
+        }
+
+        /**
+         * Sets the growth policy of the map.
+         *
+         * @param growthPolicy the policy that decides the new table length when the table grows.
+         * @return this builder.
+         */
+        public Builder<K, V> growthPolicy(GrowthPolicy growthPolicy) {
+            this.growthPolicy = growthPolicy;
+            return this;
+        }
+
+        /**
+         * Sets whether the map resizes incrementally. Only doubling steps of power-of-two tables
+         * are spread over later operations; other steps are done at once.
+         *
+         * @param incrementalResize true, to spread the work of each resize over later operations.
+         * @return this builder.
+         */
+        public Builder<K, V> incrementalResize(boolean incrementalResize) {
+            this.incrementalResize = incrementalResize;
+            return this;
+        }
+
+        /**
+         * Sets the pool that moves the bins of large tables during a resize.
+         *
+         * @param resizePool the pool for parallel resizes, or null to use the common pool.
+         * @return this builder.
+         */
+        public Builder<K, V> resizePool(ForkJoinPool resizePool) {
+            this.resizePool = resizePool;
+            return this;
+        }
+
+        /**
+         * Sets whether the map keeps an index from values to the keys mapped to them. The index makes
+         * containsValue() and keysForValue() single lookups, at the cost of memory and of keeping it
+         * up to date on every put, remove and value change. Values must not change their hashCode while mapped.
+         *
+         * @param valueIndex true, to keep the value index.
+         * @return this builder.
+         */
+        public Builder<K, V> valueIndex(boolean valueIndex) {
+            this.valueIndex = valueIndex;
+            return this;
+        }
+
+        /**
+         * Sets whether lookups first ask a blocked Bloom filter of the mapped hashes. A lookup of an unmapped key
+         * is then usually rejected after reading one block of the filter, without walking a bin. The filter
+         * can't drop removed keys, so it is rebuilt with every new table, and once more hashes have been added
+         * to it than it was sized for. During an incremental resize, the keys of the old table stay in the
+         * old filter, and a new filter receives the hashes of each bin as it is moved.
+         *
+         * @param bloomFilter true, to keep the Bloom filter.
+         * @return this builder.
+         */
+        public Builder<K, V> bloomFilter(boolean bloomFilter) {
+            this.bloomFilter = bloomFilter;
+            return this;
+        }
+
+        /**
+         * Creates an empty map with the collected settings.
+         *
+         * @return the new map.
+         * @throws IllegalArgumentException if capacity less than 0 or load factor is not positive.
+         * @throws NullPointerException if the growth policy is null.
+         */
+        public CustomHashMap<K, V> build() {
+            return new CustomHashMap<>(initialCapacity, loadFactor, growthPolicy, incrementalResize, resizePool,
+                    valueIndex, bloomFilter);
+        }
+    }
+
+    /**
+     * The Node inner class implements the Map.Entry interface.
+     * It represents a node in MyHashMap table.
+     *
+     * @param <K> the type of keys maintained by this map.
+     * @param <V> the type of mapped values.
+     */
+    static class Node<K, V> implements Map.Entry<K, V> {
+        private Node<K, V> next;
+        /**
+         * The spread hash of the key, cached so that chains can be searched and split
+         * without calling hashCode() again.
+         */
+        final int hash;
+        private final K key;
+        private V value;
+
+        /**
+         * Creates a new node with the specified hash, key and value.
+         *
+         * @param hash  hash of the key, as computed by {@link CustomHashMap#hash(Object)}.
+         * @param key   key for the new node.
+         * @param value value for the new node.
+         */
+        public Node(int hash, K key, V value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        /**
+         * Returns the key corresponding to this entry.
+         *
+         * @return key.
+         */
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        /**
+         * Returns the value corresponding to this entry.
+         *
+         * @return value.
+         */
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        /**
+         * Replaces the value corresponding to this entry with the specified value.
+         *
+         * @param value new value to be stored in this entry.
+         * @return old value corresponding to the entry.
+         */
+        @Override
+        public V setValue(V value) {
+            V oldValue = this.value;
+            this.value = value;
+            return oldValue;
+        }
+
+        /**
+         * Returns the next node in the list.
+         *
+         * @return the next node in the list.
+         */
+        public Node<K, V> getNext() {
+            return next;
+        }
+
+        /**
+         * Sets the next node in the list.
+         *
+         * @param next the next node to be set in the list.
+         */
+        public void setNext(Node<K, V> next) {
+            this.next = next;
+        }
+
+        /**
+         * Checks if the given object is a map entry with the same key and value,
+         * as required by {@link Map.Entry#equals(Object)}.
+         *
+         * @param o the object to compare with.
+         * @return true, if the object is an equal map entry.
+         */
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e
+                    && Objects.equals(key, e.getKey())
+                    && Objects.equals(value, e.getValue());
+        }
+
+        /**
+         * Returns a hash code for this node, as required by {@link Map.Entry#hashCode()}.
+         *
+         * @return a hash code value for this object.
+         */
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        /**
+         * Returns the key and the value of this node joined by "=".
+         *
+         * @return a string representation of this node.
+         */
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * The TreeNode inner class is a node of a bin that has been converted into a tree.
+     * The nodes of such a bin form a self-balancing (AVL) binary search tree ordered by
+     * hash code, then by compareTo() for keys of the same Comparable class, and are also
+     * kept in a doubly linked list through next and prev, so that code walking the chain
+     * of a bin works for tree bins as well. The root of the tree is always the first node
+     * of the list, which is the node stored in the table. It extends the linked entry,
+     * so that LinkedCustomHashMap keeps its iteration order through tree bins.
+     *
+     * @param <K> the type of keys maintained by this map.
+     * @param <V> the type of mapped values.
+     */
+    static final class TreeNode<K, V> extends LinkedCustomHashMap.Entry<K, V> {
+        private TreeNode<K, V> parent;
+        private TreeNode<K, V> left;
+        private TreeNode<K, V> right;
+        private TreeNode<K, V> prev;
+        private int height = 1;
+
+        /**
+         * Creates a new tree node with the specified hash, key and value.
+         *
+         * @param hash  hash of the key.
+         * @param key   key for the new node.
+         * @param value value for the new node.
+         */
+        TreeNode(int hash, K key, V value) {
+            super(hash, key, value);
+        }
+
+        /**
+         * Finds the node with the given key in the subtree rooted at this node.
+         *
+         * @param h the hash of the key.
+         * @param k the key to look for.
+         * @param kc the Comparable class of the key, or null if it is not known yet.
+         * @return the node, or null if the subtree does not contain the key.
+         */
+        TreeNode<K, V> find(int h, Object k, Class<?> kc) {
+            TreeNode<K, V> p = this;
+
+            while (p != null) {
+                int dir;
+                K pk = p.getKey();
+                TreeNode<K, V> pl = p.left;
+                TreeNode<K, V> pr = p.right;
+
+                if (p.hash > h) {
+                    p = pl;
+                } else if (p.hash < h) {
+                    p = pr;
+                } else if (pk == k || k.equals(pk)) {
+                    return p;
+                } else if (pl == null) {
+                    p = pr;
+                } else if (pr == null) {
+                    p = pl;
+                } else if ((kc != null || (kc = comparableClassFor(k)) != null)
+                        && (dir = compareComparables(kc, k, pk)) != 0) {
+                    p = dir < 0 ? pl : pr;
+                } else {
+                    TreeNode<K, V> q = pr.find(h, k, kc);
+                    if (q != null) {
+                        return q;
+                    }
+                    p = pl;
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Returns the root of the tree this node belongs to. It is the first node of the bin,
+         * unless an iterator has removed nodes from the bin without reordering it.
+         *
+         * @return the root of the tree.
+         */
+        TreeNode<K, V> root() {
+            TreeNode<K, V> root = this;
+            while (root.parent != null) {
+                root = root.parent;
+            }
+            return root;
+        }
+
+        /**
+         * Counts the nodes of the list starting at this node.
+         *
+         * @return the number of nodes.
+         */
+        int count() {
+            int count = 0;
+            for (Node<K, V> node = this; node != null; node = node.getNext()) {
+                count++;
+            }
+            return count;
+        }
+
+        /**
+         * Builds a tree from a list of tree nodes linked through next and prev.
+         *
+         * @param head the first node of the list.
+         * @return the root of the tree, moved to the front of the list.
+         */
+        static <K, V> TreeNode<K, V> treeify(TreeNode<K, V> head) {
+            TreeNode<K, V> root = null;
+
+            for (TreeNode<K, V> node = head; node != null; node = (TreeNode<K, V>) node.getNext()) {
+                node.parent = null;
+                node.left = null;
+                node.right = null;
+                node.height = 1;
+                root = root == null ? node : attach(root, node);
+            }
+
+            return moveRootToFront(head, root);
+        }
+
+        /**
+         * Inserts a new node into the tree whose root is the first node of its bin.
+         * The key of the node must not be present in the tree.
+         *
+         * @param root the root of the tree.
+         * @param node the node to insert.
+         * @return the new root of the tree, which is also the first node of the list.
+         */
+        static <K, V> TreeNode<K, V> insert(TreeNode<K, V> root, TreeNode<K, V> node) {
+            Node<K, V> second = root.getNext();
+            node.prev = root;
+            node.setNext(second);
+            if (second != null) {
+                ((TreeNode<K, V>) second).prev = node;
+            }
+            root.setNext(node);
+
+            return moveRootToFront(root, attach(root, node));
+        }
+
+        /**
+         * Attaches a detached node as a leaf of the tree and rebalances the tree.
+         * Keys that are neither ordered by hash nor by compareTo() are ordered
+         * by {@link #tieBreakOrder(Object, Object)}.
+         *
+         * @param root the root of the tree.
+         * @param node the node to attach.
+         * @return the new root of the tree.
+         */
+        private static <K, V> TreeNode<K, V> attach(TreeNode<K, V> root, TreeNode<K, V> node) {
+            K k = node.getKey();
+            int h = node.hash;
+            Class<?> kc = null;
+            TreeNode<K, V> p = root;
+
+            while (true) {
+                int dir;
+                if (p.hash > h) {
+                    dir = -1;
+                } else if (p.hash < h) {
+                    dir = 1;
+                } else if ((kc == null && (kc = comparableClassFor(k)) == null)
+                        || (dir = compareComparables(kc, k, p.getKey())) == 0) {
+                    dir = tieBreakOrder(k, p.getKey());
+                }
+
+                TreeNode<K, V> child = dir <= 0 ? p.left : p.right;
+                if (child == null) {
+                    node.parent = p;
+                    if (dir <= 0) {
+                        p.left = node;
+                    } else {
+                        p.right = node;
+                    }
+                    return rebalance(root, p);
+                }
+                p = child;
+            }
+        }
+
+        /**
+         * Removes a node from the tree and rebalances it. The node must already
+         * be unlinked from the list.
+         *
+         * @param root the root of the tree.
+         * @param node the node to remove.
+         * @return the new root of the tree, or null if the tree is empty.
+         */
+        static <K, V> TreeNode<K, V> remove(TreeNode<K, V> root, TreeNode<K, V> node) {
+            TreeNode<K, V> start;
+
+            if (node.left == null) {
+                start = node.parent;
+                root = transplant(root, node, node.right);
+            } else if (node.right == null) {
+                start = node.parent;
+                root = transplant(root, node, node.left);
+            } else {
+                TreeNode<K, V> successor = node.right;
+                while (successor.left != null) {
+                    successor = successor.left;
+                }
+                if (successor.parent != node) {
+                    start = successor.parent;
+                    root = transplant(root, successor, successor.right);
+                    successor.right = node.right;
+                    successor.right.parent = successor;
+                } else {
+                    start = successor;
+                }
+                root = transplant(root, node, successor);
+                successor.left = node.left;
+                successor.left.parent = successor;
+            }
+
+            node.parent = null;
+            node.left = null;
+            node.right = null;
+            return rebalance(root, start);
+        }
+
+        /**
+         * Replaces the subtree rooted at u with the subtree rooted at v.
+         *
+         * @param root the root of the tree.
+         * @param u the node to replace.
+         * @param v the replacement, or null.
+         * @return the new root of the tree.
+         */
+        private static <K, V> TreeNode<K, V> transplant(TreeNode<K, V> root, TreeNode<K, V> u, TreeNode<K, V> v) {
+            TreeNode<K, V> up = u.parent;
+            if (up == null) {
+                root = v;
+            } else if (up.left == u) {
+                up.left = v;
+            } else {
+                up.right = v;
+            }
+            if (v != null) {
+                v.parent = up;
+            }
+            return root;
+        }
+
+        /**
+         * Restores the AVL balance and the heights on the path from the given node up to the root.
+         *
+         * @param root the root of the tree.
+         * @param node the lowest node whose subtree has changed, or null.
+         * @return the new root of the tree.
+         */
+        private static <K, V> TreeNode<K, V> rebalance(TreeNode<K, V> root, TreeNode<K, V> node) {
+            while (node != null) {
+                int hl = height(node.left);
+                int hr = height(node.right);
+
+                if (hl > hr + 1) {
+                    TreeNode<K, V> l = node.left;
+                    if (height(l.left) < height(l.right)) {
+                        root = rotateLeft(root, l);
+                    }
+                    root = rotateRight(root, node);
+                    node = node.parent;
+                } else if (hr > hl + 1) {
+                    TreeNode<K, V> r = node.right;
+                    if (height(r.right) < height(r.left)) {
+                        root = rotateRight(root, r);
+                    }
+                    root = rotateLeft(root, node);
+                    node = node.parent;
+                } else {
+                    node.height = Math.max(hl, hr) + 1;
+                }
+                node = node.parent;
+            }
+
+            return root;
+        }
+
+        private static <K, V> TreeNode<K, V> rotateLeft(TreeNode<K, V> root, TreeNode<K, V> p) {
+            TreeNode<K, V> r = p.right;
+            p.right = r.left;
+            if (r.left != null) {
+                r.left.parent = p;
+            }
+            root = transplant(root, p, r);
+            r.left = p;
+            p.parent = r;
+            p.height = Math.max(height(p.left), height(p.right)) + 1;
+            r.height = Math.max(height(r.left), height(r.right)) + 1;
+            return root;
+        }
+
+        private static <K, V> TreeNode<K, V> rotateRight(TreeNode<K, V> root, TreeNode<K, V> p) {
+            TreeNode<K, V> l = p.left;
+            p.left = l.right;
+            if (l.right != null) {
+                l.right.parent = p;
+            }
+            root = transplant(root, p, l);
+            l.right = p;
+            p.parent = l;
+            p.height = Math.max(height(p.left), height(p.right)) + 1;
+            l.height = Math.max(height(l.left), height(l.right)) + 1;
+            return root;
+        }
+
+        private static int height(TreeNode<?, ?> node) {
+            return node == null ? 0 : node.height;
+        }
+
+        /**
+         * Moves the root of the tree to the front of the list.
+         *
+         * @param head the first node of the list.
+         * @param root the root of the tree.
+         * @return the root, which is now the first node of the list.
+         */
+        static <K, V> TreeNode<K, V> moveRootToFront(TreeNode<K, V> head, TreeNode<K, V> root) {
+            if (root != head) {
+                TreeNode<K, V> prev = root.prev;
+                Node<K, V> next = root.getNext();
+                prev.setNext(next);
+                if (next != null) {
+                    ((TreeNode<K, V>) next).prev = prev;
+                }
+                root.prev = null;
+                root.setNext(head);
+                head.prev = root;
+            }
+            return root;
+        }
+
+        /**
+         * Returns the class of the given object if it is of the form "class C implements Comparable<C>".
+         *
+         * @param x the object.
+         * @return the class of x, or null if its instances can't be compared with each other.
+         */
+        private static Class<?> comparableClassFor(Object x) {
+            if (!(x instanceof Comparable)) {
+                return null;
+            }
+            Class<?> c = x.getClass();
+            if (c == String.class) {
+                return c;
+            }
+            for (java.lang.reflect.Type t : c.getGenericInterfaces()) {
+                if (t instanceof java.lang.reflect.ParameterizedType p
+                        && p.getRawType() == Comparable.class
+                        && p.getActualTypeArguments().length == 1
+                        && p.getActualTypeArguments()[0] == c) {
+                    return c;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Compares k with x if x is of the Comparable class kc.
+         *
+         * @param kc the Comparable class of k.
+         * @param k the first key.
+         * @param x the second key.
+         * @return the result of k.compareTo(x), or 0 if x is not of class kc.
+         */
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        private static int compareComparables(Class<?> kc, Object k, Object x) {
+            return x == null || x.getClass() != kc ? 0 : ((Comparable) k).compareTo(x);
+        }
+
+        /**
+         * Orders two keys that have equal hashes and are not comparable. The order only
+         * has to be consistent while the tree is built, since lookups of such keys search
+         * both subtrees.
+         *
+         * @param a the first key.
+         * @param b the second key.
+         * @return -1 or 1, never 0.
+         */
+        private static int tieBreakOrder(Object a, Object b) {
+            int d = a.getClass().getName().compareTo(b.getClass().getName());
+            if (d == 0) {
+                d = System.identityHashCode(a) <= System.identityHashCode(b) ? -1 : 1;
+            }
+            return d;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.tatiSmol;
+
+/**
+ * GrowthPolicy decides how much the table of a CustomHashMap grows when the map
+ * reaches its load factor.
+ */
+@FunctionalInterface
+public interface GrowthPolicy {
+    /**
+     * Returns the table length to grow to from the given table length.
+     *
+     * @param capacity the current table length.
+     * @return the new table length. Must be greater than the current length.
+     */
+    int grow(int capacity);
+
+    /**
+     * Returns a policy that doubles the table. This is the default policy and the only one
+     * that keeps tables at power-of-two lengths, which allows indexing with a mask.
+     *
+     * @return the doubling policy.
+     */
+    static GrowthPolicy doubling() {
+        return capacity -> (int) Math.min(capacity * 2L, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a policy that grows the table by half of its length. It uses less memory
+     * than doubling but resizes more often.
+     *
+     * @return the 1.5x policy.
+     */
+    static GrowthPolicy oneAndAHalf() {
+        return capacity -> (int) Math.min(capacity + Math.max(capacity >> 1, 1L), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a policy that grows the table by the same number of bins every time.
+     *
+     * @param step the number of bins to add. Must be positive.
+     * @return the fixed step policy.
+     * @throws IllegalArgumentException if step less than 1.
+     */
+    static GrowthPolicy fixedStep(int step) {
+        if (step < 1) {
+            throw new IllegalArgumentException("Step must be positive");
+        }
+        return capacity -> (int) Math.min((long) capacity + step, Integer.MAX_VALUE);
+    }
+}
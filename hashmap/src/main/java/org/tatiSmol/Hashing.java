@@ -0,0 +1,60 @@
+package org.tatiSmol;
+
+/**
+ * Hashing class contains hash spreading and table sizing helpers
+ * shared by the hash map implementations of this package.
+ */
+final class Hashing {
+    /**
+     * The largest power-of-two table capacity that can be allocated.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private Hashing() {
+    }
+
+    /**
+     * Mixes the bits of the given hash code with the MurmurHash3 32-bit finalizer,
+     * so that every input bit affects every output bit.
+     *
+     * @param h the hash code to mix.
+     * @return the mixed hash code.
+     */
+    static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Folds the high 16 bits of the given hash code into the low 16 bits. This is much cheaper
+     * than {@link #mix(int)} and keeps ascending keys in ascending buckets, which matters for
+     * chained tables whose nodes are scanned in table order, while still letting the high bits
+     * take part in a power-of-two mask.
+     *
+     * @param h the hash code to spread.
+     * @return the spread hash code.
+     */
+    static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the smallest power of two that is greater than or equal to the given capacity.
+     *
+     * @param capacity the requested capacity. Must be non-negative.
+     * @return the power-of-two table capacity, at least 1 and at most MAXIMUM_CAPACITY.
+     */
+    static int tableSizeFor(int capacity) {
+        if (capacity <= 1) {
+            return 1;
+        }
+        if (capacity >= MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
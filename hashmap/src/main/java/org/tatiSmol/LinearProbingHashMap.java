@@ -0,0 +1,489 @@
+package org.tatiSmol;
+
+import java.util.*;
+
+/**
+ * LinearProbingHashMap class implements Map and Iterable interfaces.
+ * This is an open-addressing alternative to CustomHashMap: keys and values are stored
+ * in two flat parallel arrays instead of Node chains, collisions are resolved by
+ * linear probing and removals use backward-shift deletion, so no tombstones are left behind.
+ * Null keys are not supported.
+ *
+ * @param <K> the type of keys maintained by this map.
+ * @param <V> the type of mapped values.
+ */
+public class LinearProbingHashMap<K, V> extends AbstractMap<K, V> implements Iterable<Map.Entry<K, V>> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private Object[] keys;
+    private Object[] values;
+    private int mask;
+    private int maxFill;
+    private int size = 0;
+    private int modCount = 0;
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Constructs an empty LinearProbingHashMap with the default initial capacity (16).
+     */
+    public LinearProbingHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty LinearProbingHashMap with the custom initial capacity.
+     * The capacity is rounded up to the next power of two.
+     *
+     * @param initialCapacity the initial number of slots. Must be non-negative.
+     * @throws IllegalArgumentException if capacity less than 0.
+     */
+    public LinearProbingHashMap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity can't be negative");
+        }
+        allocate(Hashing.tableSizeFor(initialCapacity));
+    }
+
+    /**
+     * Constructs LinearProbingHashMap large enough to hold the specified map
+     * and adds all key-value pairs from it.
+     *
+     * @param m map containing the key-value pairs that will be added to the new hash map.
+     */
+    public LinearProbingHashMap(Map<? extends K, ? extends V> m) {
+        this((int) (m.size() / LOAD_FACTOR) + 1);
+        putAll(m);
+    }
+
+    /**
+     * Allocates empty key and value arrays of the given power-of-two capacity.
+     *
+     * @param capacity the number of slots.
+     */
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        maxFill = Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+    }
+
+    /**
+     * Returns the home slot of the given key.
+     *
+     * @param key the key. Must be not null.
+     * @return the slot where probing for the key starts.
+     */
+    private int slot(Object key) {
+        return Hashing.mix(key.hashCode()) & mask;
+    }
+
+    /**
+     * Returns the slot holding the given key.
+     *
+     * @param key the key to look for.
+     * @return the slot index, or -1 if the map contains no mapping for the key.
+     */
+    private int find(Object key) {
+        if (key == null) {
+            return -1;
+        }
+
+        Object[] ks = keys;
+        int i = slot(key);
+        Object k;
+
+        while ((k = ks[i]) != null) {
+            if (k == key || k.equals(key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the number of key-value pairs in the map.
+     *
+     * @return the number of key-value mappings in this map.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return true, if size equals 0.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if the map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested.
+     * @return true, if the map contains a mapping for the specified key.
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Checks if the map contains a mapping for the specified value.
+     *
+     * @param value value whose presence in this map is to be tested.
+     * @return true, if the map contains a mapping for the specified value.
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        Object[] ks = keys;
+        Object[] vs = values;
+
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != null && Objects.equals(vs[i], value)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped.
+     *
+     * @param key the key whose associated value is to be returned.
+     * @return the value to which the specified key is mapped, or null if the map contains no mapping for the key.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int i = find(key);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    /**
+     * Associates the specified value with the specified key in the map.
+     *
+     * @param key key with which the specified value is to be associated. Must be not null.
+     * @param value value to be associated with the specified key.
+     * @return the previous value associated with the key, or null if there was no mapping for the key.
+     * @throws NullPointerException if the key is null.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Objects.requireNonNull(key, "Null keys are not supported");
+
+        int i = slot(key);
+        Object k;
+
+        while ((k = keys[i]) != null) {
+            if (k == key || k.equals(key)) {
+                V oldValue = (V) values[i];
+                values[i] = value;
+                return oldValue;
+            }
+            i = (i + 1) & mask;
+        }
+
+        if (size >= maxFill) {
+            resize(keys.length * 2);
+            i = slot(key);
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Moves all existing entries into new arrays of the given capacity.
+     *
+     * @param newCapacity the new power-of-two number of slots.
+     */
+    private void resize(int newCapacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            Object k = oldKeys[j];
+            if (k != null) {
+                int i = slot(k);
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = k;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * Removes the mapping for the specified key from the map.
+     *
+     * @param key key whose mapping is to be removed from the map.
+     * @return the previous value associated with the key, or null if there was no mapping for the key.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int i = find(key);
+        if (i < 0) {
+            return null;
+        }
+
+        V oldValue = (V) values[i];
+        removeAt(i, 0, null);
+        return oldValue;
+    }
+
+    /**
+     * Empties the given slot and shifts the following entries of the probe run back,
+     * so that every remaining entry stays reachable from its home slot.
+     * Entries moved from a slot below {@code scanFrom} to a slot at or above it are
+     * added to {@code wrapped}; this lets an iterator that walks the slots downwards
+     * still return them.
+     *
+     * @param i the slot to empty.
+     * @param scanFrom the lowest slot already visited by an iterator, or 0 if there is none.
+     * @param wrapped the list collecting keys moved out of the unvisited region, or null.
+     */
+    private void removeAt(int i, int scanFrom, List<Object> wrapped) {
+        Object[] ks = keys;
+        Object[] vs = values;
+        int j = i;
+
+        while (true) {
+            j = (j + 1) & mask;
+            Object k = ks[j];
+            if (k == null) {
+                break;
+            }
+            if (((j - slot(k)) & mask) >= ((j - i) & mask)) {
+                if (wrapped != null && j < scanFrom && i >= scanFrom) {
+                    wrapped.add(k);
+                }
+                ks[i] = k;
+                vs[i] = vs[j];
+                i = j;
+            }
+        }
+
+        ks[i] = null;
+        vs[i] = null;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Removes all the mappings from the map.
+     */
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns a set view of all key-value pairs (entries) contained in this map.
+     * The set is backed by the map, so changes to the map are reflected in the set.
+     *
+     * @return set view of all key-value pairs contained in this map.
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> es = entrySet;
+        return es != null ? es : (entrySet = new EntrySet());
+    }
+
+    /**
+     * Returns an iterator over all key-value pairs contained in this map.
+     *
+     * @return an iterator over the entries in the map.
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator();
+    }
+
+    /**
+     * The EntrySet inner class is the live entry set view of the map.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            LinearProbingHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e)) {
+                return false;
+            }
+            int i = find(e.getKey());
+            return i >= 0 && Objects.equals(values[i], e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            LinearProbingHashMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+            return true;
+        }
+    }
+
+    /**
+     * The SlotEntry inner class is a map entry that reads and writes through to the slot
+     * holding its key. If the key has been moved by a removal or a resize, the slot is looked up again.
+     */
+    private final class SlotEntry implements Map.Entry<K, V> {
+        private final K key;
+        private int index;
+
+        SlotEntry(K key, int index) {
+            this.key = key;
+            this.index = index;
+        }
+
+        private int index() {
+            if (index >= keys.length || keys[index] != key) {
+                index = find(key);
+                if (index < 0) {
+                    throw new IllegalStateException("Entry is no longer in the map");
+                }
+            }
+            return index;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return (V) values[index()];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V setValue(V value) {
+            int i = index();
+            V oldValue = (V) values[i];
+            values[i] = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e
+                    && key.equals(e.getKey())
+                    && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
+    /**
+     * The EntryIterator inner class walks the slots from the last one down to the first.
+     * Walking downwards means a backward shift caused by {@link #remove()} only moves
+     * already visited entries, except for entries of a probe run that wraps around
+     * the end of the table; those are remembered and returned after the walk.
+     */
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private int pos = keys.length;
+        private int remaining = size;
+        private int last = -1;
+        private K lastKey;
+        private List<Object> wrapped;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+
+            while (pos > 0) {
+                if (keys[--pos] != null) {
+                    last = pos;
+                    lastKey = (K) keys[pos];
+                    return new SlotEntry(lastKey, pos);
+                }
+            }
+
+            last = -1;
+            lastKey = (K) wrapped.remove(wrapped.size() - 1);
+            return new SlotEntry(lastKey, 0);
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            if (last >= 0) {
+                if (wrapped == null) {
+                    wrapped = new ArrayList<>(2);
+                }
+                removeAt(last, pos, wrapped);
+            } else {
+                LinearProbingHashMap.this.remove(lastKey);
+            }
+
+            lastKey = null;
+            expectedModCount = modCount;
+        }
+    }
+}
@@ -0,0 +1,474 @@
+package org.tatiSmol;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * LinkedCustomHashMap class extends CustomHashMap with a predictable iteration order.
+ * All nodes are threaded on a doubly linked list, which is kept in insertion order,
+ * or in access order from least to most recently accessed, so that iteration only
+ * walks the live entries instead of every bin of the table.
+ * In access order, overriding {@link #removeEldestEntry(Map.Entry)} turns the map into an LRU cache.
+ *
+ * @param <K> the type of keys maintained by this map.
+ * @param <V> the type of mapped values.
+ */
+public class LinkedCustomHashMap<K, V> extends CustomHashMap<K, V> {
+    private final boolean accessOrder;
+    /**
+     * The eldest entry: the first inserted, or the least recently accessed one.
+     */
+    private Entry<K, V> head;
+    /**
+     * The youngest entry: the last inserted, or the most recently accessed one.
+     */
+    private Entry<K, V> tail;
+
+    /**
+     * Constructs an empty insertion-ordered LinkedCustomHashMap with the default initial capacity (16).
+     */
+    public LinkedCustomHashMap() {
+        super();
+        accessOrder = false;
+    }
+
+    /**
+     * Constructs an empty insertion-ordered LinkedCustomHashMap with the custom initial capacity.
+     *
+     * @param initialCapacity the initial capacity of the hash map. Must be non-negative.
+     * @throws IllegalArgumentException if capacity less than 0.
+     */
+    public LinkedCustomHashMap(int initialCapacity) {
+        super(initialCapacity);
+        accessOrder = false;
+    }
+
+    /**
+     * Constructs an empty insertion-ordered LinkedCustomHashMap with the custom initial capacity and load factor.
+     *
+     * @param initialCapacity the initial capacity of the hash map. Must be non-negative.
+     * @param loadFactor the ratio of size to table length at which the table grows. Must be positive.
+     * @throws IllegalArgumentException if capacity less than 0 or load factor is not positive.
+     */
+    public LinkedCustomHashMap(int initialCapacity, float loadFactor) {
+        super(initialCapacity, loadFactor);
+        accessOrder = false;
+    }
+
+    /**
+     * Constructs an empty LinkedCustomHashMap with the custom initial capacity, load factor and ordering mode.
+     *
+     * @param initialCapacity the initial capacity of the hash map. Must be non-negative.
+     * @param loadFactor the ratio of size to table length at which the table grows. Must be positive.
+     * @param accessOrder true, for access order, or false, for insertion order.
+     * @throws IllegalArgumentException if capacity less than 0 or load factor is not positive.
+     */
+    public LinkedCustomHashMap(int initialCapacity, float loadFactor, boolean accessOrder) {
+        super(initialCapacity, loadFactor);
+        this.accessOrder = accessOrder;
+    }
+
+    /**
+     * Constructs an insertion-ordered LinkedCustomHashMap with the mappings of the specified map,
+     * in the iteration order of that map.
+     *
+     * @param m map containing the key-value pairs that will be added to the new hash map.
+     */
+    public LinkedCustomHashMap(Map<? extends K, ? extends V> m) {
+        super();
+        accessOrder = false;
+        putAll(m);
+    }
+
+    /**
+     * Returns true, if this map should remove its eldest entry after a new mapping has been added.
+     * The default implementation never removes; subclasses may override it, for example to bound
+     * the size of an access-ordered map used as an LRU cache.
+     *
+     * @param eldest the least recently inserted, or in access order the least recently accessed, entry.
+     * @return true, if the eldest entry should be removed.
+     */
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return false;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped. In access order,
+     * the entry becomes the most recently accessed one.
+     *
+     * @param key the key whose associated value is to be returned.
+     * @return the value to which the specified key is mapped, or null if the map contains no mapping for the key.
+     */
+    @Override
+    public V get(Object key) {
+        Node<K, V> node = getNode(key);
+        if (node == null) {
+            return null;
+        }
+        afterNodeAccess(node);
+        return node.getValue();
+    }
+
+    /**
+     * Checks if the map contains a mapping for the specified value, walking the linked entries.
+     *
+     * @param value value whose presence in this map is to be tested.
+     * @return true, if the map contains a mapping for the specified value.
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        for (Entry<K, V> entry = head; entry != null; entry = entry.after) {
+            if (Objects.equals(entry.getValue(), value)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Performs the given action for each mapping of the map, walking the linked entries in order.
+     *
+     * @param action the action to be performed for each mapping.
+     * @throws ConcurrentModificationException if the map is structurally modified during the walk.
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (Entry<K, V> entry = head; entry != null; entry = entry.after) {
+            action.accept(entry.getKey(), entry.getValue());
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Performs the given action for each key of the map, walking the linked entries in order.
+     *
+     * @param action the action to be performed for each key.
+     * @throws ConcurrentModificationException if the map is structurally modified during the walk.
+     */
+    @Override
+    public void forEachKey(Consumer<? super K> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (Entry<K, V> entry = head; entry != null; entry = entry.after) {
+            action.accept(entry.getKey());
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Performs the given action for each value of the map, walking the linked entries in order.
+     *
+     * @param action the action to be performed for each value.
+     * @throws ConcurrentModificationException if the map is structurally modified during the walk.
+     */
+    @Override
+    public void forEachValue(Consumer<? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (Entry<K, V> entry = head; entry != null; entry = entry.after) {
+            action.accept(entry.getValue());
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Replaces the value of each mapping with the result of the given function,
+     * walking the linked entries in order. The order of the entries doesn't change.
+     *
+     * @param function the function that computes the new value from the key and the current value.
+     * @throws ConcurrentModificationException if the map is structurally modified during the walk.
+     */
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        int expectedModCount = modCount;
+        for (Entry<K, V> entry = head; entry != null; entry = entry.after) {
+            setNodeValue(entry, function.apply(entry.getKey(), entry.getValue()));
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Removes all the mappings from the map.
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        head = null;
+        tail = null;
+    }
+
+    /**
+     * Returns an iterator over the linked entries, from the eldest to the youngest.
+     * The keySet, values and entrySet views iterate in this order.
+     *
+     * @return an iterator over the nodes in the map.
+     */
+    @Override
+    Iterator<Node<K, V>> nodeIterator() {
+        return new LinkedIterator();
+    }
+
+    /**
+     * Returns an ordered spliterator over the elements of a view. The linked entries can't be
+     * split by table index ranges without losing their order, so it walks the view's iterator
+     * and splits off batches of it.
+     *
+     * @param view the view whose elements are returned.
+     * @param element the function that maps a node to the element of the view.
+     * @param characteristics the characteristics of the view besides SIZED.
+     * @param <T> the type of the elements of the view.
+     * @return a spliterator over the elements of the view.
+     */
+    @Override
+    <T> Spliterator<T> viewSpliterator(Collection<T> view, Function<Node<K, V>, T> element, int characteristics) {
+        return Spliterators.spliterator(view, characteristics | Spliterator.ORDERED);
+    }
+
+    /**
+     * Creates a plain node for a new mapping and links it as the youngest entry.
+     *
+     * @param hash the hash of the key.
+     * @param key the key of the mapping.
+     * @param value the value of the mapping.
+     * @return the new node.
+     */
+    @Override
+    Node<K, V> newNode(int hash, K key, V value) {
+        Entry<K, V> entry = new Entry<>(hash, key, value);
+        linkLast(entry);
+        return entry;
+    }
+
+    /**
+     * Creates a tree node for a new mapping and links it as the youngest entry.
+     *
+     * @param hash the hash of the key.
+     * @param key the key of the mapping.
+     * @param value the value of the mapping.
+     * @return the new tree node.
+     */
+    @Override
+    TreeNode<K, V> newTreeNode(int hash, K key, V value) {
+        TreeNode<K, V> treeNode = new TreeNode<>(hash, key, value);
+        linkLast(treeNode);
+        return treeNode;
+    }
+
+    /**
+     * Creates a plain node that takes the place of the given node in the linked entries.
+     *
+     * @param node the node to replace.
+     * @return the new node holding the same mapping.
+     */
+    @Override
+    Node<K, V> replacementNode(Node<K, V> node) {
+        Entry<K, V> entry = new Entry<>(node.hash, node.getKey(), node.getValue());
+        transferLinks((Entry<K, V>) node, entry);
+        return entry;
+    }
+
+    /**
+     * Creates a tree node that takes the place of the given node in the linked entries.
+     *
+     * @param node the node to replace.
+     * @return the new tree node holding the same mapping.
+     */
+    @Override
+    TreeNode<K, V> replacementTreeNode(Node<K, V> node) {
+        TreeNode<K, V> treeNode = new TreeNode<>(node.hash, node.getKey(), node.getValue());
+        transferLinks((Entry<K, V>) node, treeNode);
+        return treeNode;
+    }
+
+    /**
+     * Moves the accessed entry to the end of the list, if the map is in access order.
+     * Such a move is a structural modification for the iterators.
+     *
+     * @param node the accessed node.
+     */
+    @Override
+    void afterNodeAccess(Node<K, V> node) {
+        Entry<K, V> entry = (Entry<K, V>) node;
+        if (!accessOrder || entry == tail) {
+            return;
+        }
+
+        unlink(entry);
+        linkLast(entry);
+        modCount++;
+    }
+
+    /**
+     * Removes the eldest entry, if {@link #removeEldestEntry(Map.Entry)} asks for it.
+     */
+    @Override
+    void afterNodeInsertion() {
+        Entry<K, V> eldest = head;
+        if (eldest != null && removeEldestEntry(eldest)) {
+            remove(eldest.getKey());
+        }
+    }
+
+    /**
+     * Unlinks the removed node from the list.
+     *
+     * @param node the removed node.
+     */
+    @Override
+    void afterNodeRemoval(Node<K, V> node) {
+        unlink((Entry<K, V>) node);
+    }
+
+    /**
+     * Disables the parallel resize: replacing the nodes of a split tree bin relinks
+     * their neighbours in the list, which may belong to bins moved by other threads.
+     *
+     * @return false.
+     */
+    @Override
+    boolean supportsParallelResize() {
+        return false;
+    }
+
+    /**
+     * Appends the entry to the end of the list.
+     *
+     * @param entry the entry to append.
+     */
+    private void linkLast(Entry<K, V> entry) {
+        Entry<K, V> last = tail;
+        entry.before = last;
+        entry.after = null;
+        tail = entry;
+        if (last == null) {
+            head = entry;
+        } else {
+            last.after = entry;
+        }
+    }
+
+    /**
+     * Removes the entry from the list.
+     *
+     * @param entry the entry to remove.
+     */
+    private void unlink(Entry<K, V> entry) {
+        Entry<K, V> before = entry.before;
+        Entry<K, V> after = entry.after;
+        if (before == null) {
+            head = after;
+        } else {
+            before.after = after;
+        }
+        if (after == null) {
+            tail = before;
+        } else {
+            after.before = before;
+        }
+        entry.before = null;
+        entry.after = null;
+    }
+
+    /**
+     * Puts the replacement entry at the place of the replaced entry in the list.
+     *
+     * @param src the replaced entry.
+     * @param dst the replacement entry.
+     */
+    private void transferLinks(Entry<K, V> src, Entry<K, V> dst) {
+        Entry<K, V> before = src.before;
+        Entry<K, V> after = src.after;
+        dst.before = before;
+        dst.after = after;
+        if (before == null) {
+            head = dst;
+        } else {
+            before.after = dst;
+        }
+        if (after == null) {
+            tail = dst;
+        } else {
+            after.before = dst;
+        }
+    }
+
+    /**
+     * The LinkedIterator inner class walks the linked entries from the eldest to the youngest.
+     * It fails fast once the map is structurally modified other than through {@link #remove()}.
+     */
+    private final class LinkedIterator implements Iterator<Node<K, V>> {
+        private Entry<K, V> next = head;
+        private Entry<K, V> current;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Node<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            Entry<K, V> entry = next;
+            if (entry == null) {
+                throw new NoSuchElementException();
+            }
+            current = entry;
+            next = entry.after;
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            removeNode(current.getKey(), false);
+            current = null;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * The Entry inner class is a node that is also linked into the iteration order of the map.
+     *
+     * @param <K> the type of keys maintained by this map.
+     * @param <V> the type of mapped values.
+     */
+    static class Entry<K, V> extends Node<K, V> {
+        private Entry<K, V> before;
+        private Entry<K, V> after;
+
+        /**
+         * Creates a new entry with the specified hash, key and value.
+         *
+         * @param hash  hash of the key.
+         * @param key   key for the new entry.
+         * @param value value for the new entry.
+         */
+        Entry(int hash, K key, V value) {
+            super(hash, key, value);
+        }
+    }
+}
@@ -0,0 +1,537 @@
+package org.tatiSmol;
+
+import java.util.*;
+
+/**
+ * ObjectIntMap class is a hash map from object keys to primitive int values.
+ * Keys and values are stored in two flat parallel arrays, so put, get and addTo neither box
+ * the value nor allocate a node. A missing mapping reads as 0. Collisions are resolved by
+ * linear probing and removals use backward-shift deletion. Null keys are not supported.
+ * Like CustomHashMap, the table doubles once the size exceeds the load factor, halves once
+ * the size falls below a quarter of that, and its cursors fail fast.
+ *
+ * @param <K> the type of keys maintained by this map.
+ */
+public class ObjectIntMap<K> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private final float loadFactor;
+    /**
+     * The number of slots remove() never shrinks below: the initial number of slots, but at least DEFAULT_CAPACITY.
+     */
+    private final int minCapacity;
+    private Object[] keys;
+    private int[] values;
+    private int mask;
+    /**
+     * The size above which the table grows.
+     */
+    private int maxFill;
+    /**
+     * The size below which remove() halves the table.
+     */
+    private int shrinkThreshold;
+    private int size = 0;
+    private int modCount = 0;
+
+    /**
+     * Constructs an empty ObjectIntMap with the default initial capacity (16).
+     */
+    public ObjectIntMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty ObjectIntMap with the custom initial capacity.
+     * The capacity is rounded up to the next power of two.
+     *
+     * @param initialCapacity the initial number of slots. Must be non-negative.
+     * @throws IllegalArgumentException if capacity less than 0.
+     */
+    public ObjectIntMap(int initialCapacity) {
+        this(initialCapacity, LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty ObjectIntMap with the custom initial capacity and load factor.
+     *
+     * @param initialCapacity the initial number of slots. Must be non-negative.
+     * @param loadFactor the ratio of size to number of slots at which the table grows. Must be between 0 and 1.
+     * @throws IllegalArgumentException if capacity less than 0 or load factor is not between 0 and 1.
+     */
+    public ObjectIntMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity can't be negative");
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1");
+        }
+        this.loadFactor = loadFactor;
+        allocate(Hashing.tableSizeFor(initialCapacity));
+        minCapacity = Math.max(keys.length, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Allocates empty key and value arrays of the given power-of-two capacity.
+     *
+     * @param capacity the number of slots.
+     */
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        maxFill = Math.min(capacity - 1, (int) Math.ceil(capacity * loadFactor));
+        shrinkThreshold = maxFill / 4;
+    }
+
+    /**
+     * Returns the home slot of the given key.
+     *
+     * @param key the key. Must be not null.
+     * @return the slot where probing for the key starts.
+     */
+    private int slot(Object key) {
+        return Hashing.mix(key.hashCode()) & mask;
+    }
+
+    /**
+     * Returns the slot holding the given key.
+     *
+     * @param key the key to look for.
+     * @return the slot index, or -1 if the map contains no mapping for the key.
+     */
+    private int find(Object key) {
+        if (key == null) {
+            return -1;
+        }
+
+        Object[] ks = keys;
+        int i = slot(key);
+        Object k;
+
+        while ((k = ks[i]) != null) {
+            if (k == key || k.equals(key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the number of key-value pairs in the map.
+     *
+     * @return the number of key-value mappings in this map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return true, if size equals 0.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if the map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested.
+     * @return true, if the map contains a mapping for the specified key.
+     */
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Checks if the map contains a mapping for the specified value.
+     *
+     * @param value value whose presence in this map is to be tested.
+     * @return true, if the map contains a mapping for the specified value.
+     */
+    public boolean containsValue(int value) {
+        Object[] ks = keys;
+        int[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != null && vs[i] == value) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped.
+     *
+     * @param key the key whose associated value is to be returned.
+     * @return the value to which the specified key is mapped, or 0 if the map contains no mapping for the key.
+     */
+    public int get(Object key) {
+        return getOrDefault(key, 0);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or the default value
+     * if the map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned.
+     * @param defaultValue the value to return if the map contains no mapping for the key.
+     * @return the value to which the specified key is mapped, or defaultValue.
+     */
+    public int getOrDefault(Object key, int defaultValue) {
+        int i = find(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    /**
+     * Associates the specified value with the specified key in the map.
+     *
+     * @param key key with which the specified value is to be associated. Must be not null.
+     * @param value value to be associated with the specified key.
+     * @return the previous value associated with the key, or 0 if there was no mapping for the key.
+     * @throws NullPointerException if the key is null.
+     */
+    public int put(K key, int value) {
+        Objects.requireNonNull(key, "Null keys are not supported");
+
+        Object[] ks = keys;
+        int i = slot(key);
+        Object k;
+
+        while ((k = ks[i]) != null) {
+            if (k == key || k.equals(key)) {
+                int oldValue = values[i];
+                values[i] = value;
+                return oldValue;
+            }
+            i = (i + 1) & mask;
+        }
+
+        ks[i] = key;
+        values[i] = value;
+        afterInsertion();
+        return 0;
+    }
+
+    /**
+     * Adds the increment to the value of the specified key, mapping the key to the increment
+     * if it is not mapped yet. The slot of the key is looked up only once.
+     *
+     * @param key key whose value is to be incremented. Must be not null.
+     * @param increment the amount to add.
+     * @return the new value associated with the key.
+     * @throws NullPointerException if the key is null.
+     */
+    public int addTo(K key, int increment) {
+        Objects.requireNonNull(key, "Null keys are not supported");
+
+        Object[] ks = keys;
+        int i = slot(key);
+        Object k;
+
+        while ((k = ks[i]) != null) {
+            if (k == key || k.equals(key)) {
+                return values[i] += increment;
+            }
+            i = (i + 1) & mask;
+        }
+
+        ks[i] = key;
+        values[i] = increment;
+        afterInsertion();
+        return increment;
+    }
+
+    /**
+     * Updates the size and the modification count after a mapping has been added,
+     * and doubles the table once the size exceeds maxFill.
+     */
+    private void afterInsertion() {
+        size++;
+        modCount++;
+        if (size > maxFill) {
+            resize(keys.length * 2);
+        }
+    }
+
+    /**
+     * Moves all existing entries into new arrays of the given capacity.
+     *
+     * @param newCapacity the new power-of-two number of slots.
+     */
+    private void resize(int newCapacity) {
+        Object[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            Object k = oldKeys[j];
+            if (k != null) {
+                int i = slot(k);
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = k;
+                values[i] = oldValues[j];
+            }
+        }
+        modCount++;
+    }
+
+    /**
+     * Removes the mapping for the specified key from the map.
+     *
+     * @param key key whose mapping is to be removed from the map.
+     * @return the previous value associated with the key, or 0 if there was no mapping for the key.
+     */
+    public int remove(Object key) {
+        int i = find(key);
+        if (i < 0) {
+            return 0;
+        }
+
+        int oldValue = values[i];
+        removeAt(i, 0, null);
+        if (size < shrinkThreshold && keys.length > minCapacity) {
+            resize(Math.max(keys.length / 2, minCapacity));
+        }
+        return oldValue;
+    }
+
+    /**
+     * Empties the given slot and shifts the following entries of the probe run back,
+     * so that every remaining entry stays reachable from its home slot.
+     * Entries moved from a slot below {@code scanFrom} to a slot at or above it are
+     * handed to the cursor, which walks the slots downwards and would miss them otherwise.
+     *
+     * @param i the slot to empty.
+     * @param scanFrom the lowest slot already visited by the cursor, or 0 if there is none.
+     * @param cursor the cursor collecting keys moved out of the unvisited region, or null.
+     */
+    private void removeAt(int i, int scanFrom, Cursor cursor) {
+        Object[] ks = keys;
+        int[] vs = values;
+        int j = i;
+
+        while (true) {
+            j = (j + 1) & mask;
+            Object k = ks[j];
+            if (k == null) {
+                break;
+            }
+            if (((j - slot(k)) & mask) >= ((j - i) & mask)) {
+                if (cursor != null && j < scanFrom && i >= scanFrom) {
+                    cursor.addWrapped(k);
+                }
+                ks[i] = k;
+                vs[i] = vs[j];
+                i = j;
+            }
+        }
+
+        ks[i] = null;
+        vs[i] = 0;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Removes all the mappings from the map.
+     */
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(keys, null);
+        Arrays.fill(values, 0);
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Shrinks the table to the smallest number of slots that holds the current mappings without resizing.
+     * Unlike the automatic shrinking in remove(), this may go below the initial capacity.
+     */
+    public void trimToSize() {
+        int capacity = Hashing.tableSizeFor((int) Math.min(Math.ceil(size / loadFactor) + 1, Hashing.MAXIMUM_CAPACITY));
+        if (capacity < keys.length) {
+            resize(capacity);
+        }
+    }
+
+    /**
+     * Performs the given action for each mapping of the map.
+     *
+     * @param action the action to be performed for each mapping.
+     * @throws ConcurrentModificationException if the map is structurally modified during the walk.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super K> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        Object[] ks = keys;
+        int[] vs = values;
+        for (int i = ks.length - 1; i >= 0; i--) {
+            if (ks[i] != null) {
+                action.accept((K) ks[i], vs[i]);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns a cursor over the mappings of the map, which reads values without boxing.
+     *
+     * @return a cursor positioned before the first mapping.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * EntryConsumer is the action performed for each mapping by {@link #forEach(EntryConsumer)}.
+     *
+     * @param <K> the type of keys maintained by the map.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<K> {
+        /**
+         * Performs the action for a mapping.
+         *
+         * @param key the key of the mapping.
+         * @param value the value of the mapping.
+         */
+        void accept(K key, int value);
+    }
+
+    /**
+     * The Cursor inner class walks the slots from the last one down to the first.
+     * Walking downwards means a backward shift caused by {@link #remove()} only moves
+     * already visited entries, except for entries of a probe run that wraps around
+     * the end of the table; those are remembered and visited after the walk.
+     * It fails fast once the map is structurally modified other than through {@link #remove()}.
+     */
+    public final class Cursor {
+        /**
+         * The index of the current mapping when there is none.
+         */
+        private static final int NONE = -1;
+        private int pos = keys.length;
+        private int remaining = size;
+        private int index = NONE;
+        private Object[] wrapped;
+        private int wrappedCount;
+        private int expectedModCount = modCount;
+
+        private Cursor() {
+        }
+
+        /**
+         * Moves to the next mapping.
+         *
+         * @return true, if there is a next mapping; false, if the walk is over.
+         * @throws ConcurrentModificationException if the map has been structurally modified.
+         */
+        public boolean advance() {
+            checkModCount();
+            if (remaining == 0) {
+                index = NONE;
+                return false;
+            }
+            remaining--;
+
+            while (pos > 0) {
+                if (keys[--pos] != null) {
+                    index = pos;
+                    return true;
+                }
+            }
+            index = find(wrapped[--wrappedCount]);
+            return true;
+        }
+
+        /**
+         * Returns the key of the current mapping.
+         *
+         * @return the key.
+         * @throws IllegalStateException if there is no current mapping.
+         */
+        @SuppressWarnings("unchecked")
+        public K key() {
+            checkCurrent();
+            return (K) keys[index];
+        }
+
+        /**
+         * Returns the value of the current mapping.
+         *
+         * @return the value.
+         * @throws IllegalStateException if there is no current mapping.
+         */
+        public int value() {
+            checkCurrent();
+            return values[index];
+        }
+
+        /**
+         * Replaces the value of the current mapping.
+         *
+         * @param value the new value.
+         * @return the previous value.
+         * @throws IllegalStateException if there is no current mapping.
+         */
+        public int setValue(int value) {
+            checkCurrent();
+            int oldValue = values[index];
+            values[index] = value;
+            return oldValue;
+        }
+
+        /**
+         * Removes the current mapping. The table is not shrunk while a cursor is walking it.
+         *
+         * @throws IllegalStateException if there is no current mapping.
+         * @throws ConcurrentModificationException if the map has been structurally modified.
+         */
+        public void remove() {
+            checkCurrent();
+            checkModCount();
+            removeAt(index, pos, this);
+            index = NONE;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Remembers a key that a removal moved from the unvisited slots to the visited ones.
+         *
+         * @param key the moved key.
+         */
+        private void addWrapped(Object key) {
+            if (wrapped == null) {
+                wrapped = new Object[2];
+            } else if (wrappedCount == wrapped.length) {
+                wrapped = Arrays.copyOf(wrapped, wrappedCount * 2);
+            }
+            wrapped[wrappedCount++] = key;
+        }
+
+        private void checkCurrent() {
+            if (index == NONE) {
+                throw new IllegalStateException();
+            }
+        }
+
+        private void checkModCount() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,692 @@
+package org.tatiSmol;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * OffHeapHashMap class is a hash map whose table and entries live outside the Java heap.
+ * Keys and values are serialized by a {@link Codec} into records appended to direct memory chunks,
+ * and the table holds only the hash and the location of each record, so a map of any size adds just
+ * a handful of objects for the garbage collector to trace. Collisions are resolved by linear probing
+ * and removals use backward-shift deletion. Null keys and values are not supported.
+ * Records that are replaced or removed leave garbage behind, which is compacted away once it
+ * outweighs the live records. The memory is released by {@link #close()}; a closed map can't be used.
+ *
+ * @param <K> the type of keys maintained by this map.
+ * @param <V> the type of mapped values.
+ */
+public class OffHeapHashMap<K, V> implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    /**
+     * Every slot holds the location of its record (8 bytes, 0 if the slot is empty) and the hash of the key (4 bytes).
+     */
+    private static final int SLOT_BYTES = 12;
+    private static final int HASH_OFFSET = 8;
+    /**
+     * The table is split into pages of 2^PAGE_SHIFT slots, since a single buffer can't hold more than 2 GiB.
+     */
+    private static final int PAGE_SHIFT = 20;
+    private static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+    /**
+     * The size of the chunks records are appended to. Larger records get a chunk of their own.
+     */
+    private static final int CHUNK_SIZE = 1 << 20;
+    /**
+     * Every record starts with the key length and the value length, followed by the key and value bytes.
+     */
+    private static final int RECORD_HEADER_BYTES = 8;
+    /**
+     * Frees a direct buffer at once instead of when it's collected, or null if the JDK doesn't allow it.
+     */
+    private static final MethodHandle INVOKE_CLEANER = findCleaner();
+
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private final float loadFactor;
+    /**
+     * The number of slots remove() never shrinks below: the initial number of slots, but at least DEFAULT_CAPACITY.
+     */
+    private final int minCapacity;
+    private ByteBuffer[] pages;
+    private int capacity;
+    private int mask;
+    /**
+     * The size above which the table grows.
+     */
+    private int maxFill;
+    /**
+     * The size below which remove() halves the table.
+     */
+    private int shrinkThreshold;
+    private List<ByteBuffer> chunks = new ArrayList<>();
+    /**
+     * The chunk new records are appended to, or null if there is none yet.
+     */
+    private ByteBuffer chunk;
+    private int chunkPosition;
+    /**
+     * The total size of all chunks.
+     */
+    private long dataBytes;
+    /**
+     * The size of the records still referenced by the table.
+     */
+    private long liveBytes;
+    /**
+     * Heap buffer the key of the current operation is encoded into.
+     */
+    private ByteBuffer scratch = ByteBuffer.allocate(64);
+    private boolean closed;
+    private int size = 0;
+    private int modCount = 0;
+
+    /**
+     * Constructs an empty OffHeapHashMap with the default initial capacity (16).
+     *
+     * @param keyCodec the codec serializing the keys.
+     * @param valueCodec the codec serializing the values.
+     */
+    public OffHeapHashMap(Codec<K> keyCodec, Codec<V> valueCodec) {
+        this(keyCodec, valueCodec, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty OffHeapHashMap with the custom initial capacity.
+     * The capacity is rounded up to the next power of two.
+     *
+     * @param keyCodec the codec serializing the keys.
+     * @param valueCodec the codec serializing the values.
+     * @param initialCapacity the initial number of slots. Must be non-negative.
+     * @throws IllegalArgumentException if capacity less than 0.
+     */
+    public OffHeapHashMap(Codec<K> keyCodec, Codec<V> valueCodec, int initialCapacity) {
+        this(keyCodec, valueCodec, initialCapacity, LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty OffHeapHashMap with the custom initial capacity and load factor.
+     *
+     * @param keyCodec the codec serializing the keys.
+     * @param valueCodec the codec serializing the values.
+     * @param initialCapacity the initial number of slots. Must be non-negative.
+     * @param loadFactor the ratio of size to number of slots at which the table grows. Must be between 0 and 1.
+     * @throws IllegalArgumentException if capacity less than 0 or load factor is not between 0 and 1.
+     */
+    public OffHeapHashMap(Codec<K> keyCodec, Codec<V> valueCodec, int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity can't be negative");
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1");
+        }
+        this.keyCodec = Objects.requireNonNull(keyCodec);
+        this.valueCodec = Objects.requireNonNull(valueCodec);
+        this.loadFactor = loadFactor;
+        allocate(Hashing.tableSizeFor(initialCapacity));
+        minCapacity = Math.max(capacity, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Allocates an empty table of the given power-of-two capacity.
+     *
+     * @param newCapacity the number of slots.
+     */
+    private void allocate(int newCapacity) {
+        int pageSlots = Math.min(newCapacity, 1 << PAGE_SHIFT);
+        pages = new ByteBuffer[newCapacity / pageSlots];
+        for (int p = 0; p < pages.length; p++) {
+            pages[p] = ByteBuffer.allocateDirect(pageSlots * SLOT_BYTES).order(ByteOrder.nativeOrder());
+        }
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        maxFill = Math.min(newCapacity - 1, (int) Math.ceil(newCapacity * loadFactor));
+        shrinkThreshold = maxFill / 4;
+    }
+
+    private long ref(ByteBuffer[] table, int i) {
+        return table[i >>> PAGE_SHIFT].getLong((i & PAGE_MASK) * SLOT_BYTES);
+    }
+
+    private int slotHash(ByteBuffer[] table, int i) {
+        return table[i >>> PAGE_SHIFT].getInt((i & PAGE_MASK) * SLOT_BYTES + HASH_OFFSET);
+    }
+
+    private void setSlot(ByteBuffer[] table, int i, long ref, int hash) {
+        ByteBuffer page = table[i >>> PAGE_SHIFT];
+        int offset = (i & PAGE_MASK) * SLOT_BYTES;
+        page.putLong(offset, ref);
+        page.putInt(offset + HASH_OFFSET, hash);
+    }
+
+    /**
+     * Returns the chunk holding the record at the given location.
+     *
+     * @param ref the location of the record: the chunk index plus one in the high half, the offset in the low half.
+     * @return the chunk.
+     */
+    private ByteBuffer chunk(long ref) {
+        return chunks.get((int) (ref >>> 32) - 1);
+    }
+
+    private static int offset(long ref) {
+        return (int) ref;
+    }
+
+    /**
+     * Returns the total size of a record.
+     *
+     * @param ref the location of the record.
+     * @return the record size in bytes, including the header.
+     */
+    private int recordSize(long ref) {
+        ByteBuffer c = chunk(ref);
+        int offset = offset(ref);
+        return RECORD_HEADER_BYTES + c.getInt(offset) + c.getInt(offset + 4);
+    }
+
+    /**
+     * Encodes the key into the scratch buffer.
+     *
+     * @param key the key.
+     * @return the scratch buffer, holding exactly the encoded key between position and limit.
+     * @throws NullPointerException if the key is null.
+     * @throws IllegalStateException if the codec doesn't write the announced number of bytes.
+     */
+    private ByteBuffer encodeKey(K key) {
+        Objects.requireNonNull(key);
+        int keySize = keyCodec.encodedSize(key);
+        if (keySize > scratch.capacity()) {
+            scratch = ByteBuffer.allocate(Math.max(keySize, scratch.capacity() * 2));
+        }
+        scratch.clear().limit(keySize);
+        keyCodec.encode(key, scratch);
+        if (scratch.hasRemaining()) {
+            throw new IllegalStateException("Key codec wrote less than encodedSize() bytes");
+        }
+        return scratch.flip();
+    }
+
+    /**
+     * Returns the hash of an encoded key.
+     *
+     * @param encodedKey the encoded key.
+     * @return the mixed hash of the key bytes.
+     */
+    private static int hash(ByteBuffer encodedKey) {
+        return Hashing.mix(encodedKey.hashCode());
+    }
+
+    /**
+     * Checks if the record at the given location holds the encoded key.
+     *
+     * @param ref the location of the record.
+     * @param encodedKey the encoded key.
+     * @return true, if the key bytes of the record equal the encoded key.
+     */
+    private boolean keyEquals(long ref, ByteBuffer encodedKey) {
+        ByteBuffer c = chunk(ref);
+        int offset = offset(ref);
+        int keySize = c.getInt(offset);
+        return keySize == encodedKey.remaining()
+                && c.slice(offset + RECORD_HEADER_BYTES, keySize).equals(encodedKey);
+    }
+
+    private K decodeKey(long ref) {
+        ByteBuffer c = chunk(ref);
+        int offset = offset(ref);
+        return keyCodec.decode(c.slice(offset + RECORD_HEADER_BYTES, c.getInt(offset)));
+    }
+
+    private V decodeValue(long ref) {
+        ByteBuffer c = chunk(ref);
+        int offset = offset(ref);
+        int keySize = c.getInt(offset);
+        return valueCodec.decode(c.slice(offset + RECORD_HEADER_BYTES + keySize, c.getInt(offset + 4)));
+    }
+
+    /**
+     * Returns the slot holding the encoded key.
+     *
+     * @param encodedKey the encoded key.
+     * @param hash the hash of the encoded key.
+     * @return the slot index, or -1 if the map contains no mapping for the key.
+     */
+    private int find(ByteBuffer encodedKey, int hash) {
+        ByteBuffer[] table = pages;
+        int i = hash & mask;
+        long ref;
+
+        while ((ref = ref(table, i)) != 0) {
+            if (slotHash(table, i) == hash && keyEquals(ref, encodedKey)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the number of key-value pairs in the map.
+     *
+     * @return the number of key-value mappings in this map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return true, if size equals 0.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if the map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested.
+     * @return true, if the map contains a mapping for the specified key.
+     * @throws NullPointerException if the key is null.
+     * @throws IllegalStateException if the map is closed.
+     */
+    public boolean containsKey(K key) {
+        ensureOpen();
+        ByteBuffer encodedKey = encodeKey(key);
+        return find(encodedKey, hash(encodedKey)) >= 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped.
+     *
+     * @param key the key whose associated value is to be returned.
+     * @return a decoded copy of the value to which the specified key is mapped, or null if the map contains no mapping for the key.
+     * @throws NullPointerException if the key is null.
+     * @throws IllegalStateException if the map is closed.
+     */
+    public V get(K key) {
+        return getOrDefault(key, null);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or the default value
+     * if the map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned.
+     * @param defaultValue the value to return if the map contains no mapping for the key.
+     * @return a decoded copy of the value to which the specified key is mapped, or defaultValue.
+     * @throws NullPointerException if the key is null.
+     * @throws IllegalStateException if the map is closed.
+     */
+    public V getOrDefault(K key, V defaultValue) {
+        ensureOpen();
+        ByteBuffer encodedKey = encodeKey(key);
+        int i = find(encodedKey, hash(encodedKey));
+        return i < 0 ? defaultValue : decodeValue(ref(pages, i));
+    }
+
+    /**
+     * Associates the specified value with the specified key in the map.
+     * A value whose encoded size equals the one of the previous value is overwritten in place.
+     *
+     * @param key key with which the specified value is to be associated.
+     * @param value value to be associated with the specified key.
+     * @return the previous value associated with the key, or null if there was no mapping for the key.
+     * @throws NullPointerException if the key or the value is null.
+     * @throws IllegalStateException if the map is closed or has reached the maximum capacity.
+     */
+    public V put(K key, V value) {
+        ensureOpen();
+        Objects.requireNonNull(value);
+        ByteBuffer encodedKey = encodeKey(key);
+        int hash = hash(encodedKey);
+        int valueSize = valueCodec.encodedSize(value);
+        ByteBuffer[] table = pages;
+        int i = hash & mask;
+        long ref;
+
+        while ((ref = ref(table, i)) != 0) {
+            if (slotHash(table, i) == hash && keyEquals(ref, encodedKey)) {
+                V oldValue = decodeValue(ref);
+                ByteBuffer c = chunk(ref);
+                int offset = offset(ref);
+                if (c.getInt(offset + 4) == valueSize) {
+                    writeValue(c, offset + RECORD_HEADER_BYTES + encodedKey.remaining(), value, valueSize);
+                } else {
+                    liveBytes -= recordSize(ref);
+                    setSlot(table, i, writeRecord(encodedKey, value, valueSize), hash);
+                    compactIfWasteful();
+                }
+                return oldValue;
+            }
+            i = (i + 1) & mask;
+        }
+
+        if (size >= maxFill && capacity == Hashing.MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Map is full");
+        }
+        setSlot(table, i, writeRecord(encodedKey, value, valueSize), hash);
+        size++;
+        modCount++;
+        if (size > maxFill) {
+            resize(capacity * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Appends a record for the encoded key and the value.
+     *
+     * @param encodedKey the encoded key.
+     * @param value the value.
+     * @param valueSize the encoded size of the value.
+     * @return the location of the new record.
+     */
+    private long writeRecord(ByteBuffer encodedKey, V value, int valueSize) {
+        int keySize = encodedKey.remaining();
+        long ref = reserve(RECORD_HEADER_BYTES + keySize + valueSize);
+        ByteBuffer c = chunk;
+        int offset = offset(ref);
+        c.putInt(offset, keySize);
+        c.putInt(offset + 4, valueSize);
+        c.put(offset + RECORD_HEADER_BYTES, encodedKey, encodedKey.position(), keySize);
+        writeValue(c, offset + RECORD_HEADER_BYTES + keySize, value, valueSize);
+        return ref;
+    }
+
+    /**
+     * Encodes the value into the given region of a chunk.
+     *
+     * @param c the chunk.
+     * @param offset the offset of the value bytes.
+     * @param value the value.
+     * @param valueSize the encoded size of the value.
+     * @throws IllegalStateException if the codec doesn't write the announced number of bytes.
+     */
+    private void writeValue(ByteBuffer c, int offset, V value, int valueSize) {
+        ByteBuffer out = c.slice(offset, valueSize);
+        valueCodec.encode(value, out);
+        if (out.hasRemaining()) {
+            throw new IllegalStateException("Value codec wrote less than encodedSize() bytes");
+        }
+    }
+
+    /**
+     * Reserves space for a record at the end of the current chunk, starting a new chunk if it doesn't fit.
+     *
+     * @param recordSize the size of the record in bytes.
+     * @return the location of the reserved space.
+     */
+    private long reserve(int recordSize) {
+        if (chunk == null || chunk.capacity() - chunkPosition < recordSize) {
+            chunk = ByteBuffer.allocateDirect(Math.max(recordSize, CHUNK_SIZE));
+            chunks.add(chunk);
+            chunkPosition = 0;
+            dataBytes += chunk.capacity();
+        }
+        long ref = ((long) chunks.size() << 32) | chunkPosition;
+        chunkPosition += recordSize;
+        liveBytes += recordSize;
+        return ref;
+    }
+
+    /**
+     * Copies the live records into new chunks once the garbage left by replaced and removed records
+     * outweighs them, and releases the old chunks.
+     */
+    private void compactIfWasteful() {
+        long garbage = dataBytes - liveBytes;
+        if (garbage <= CHUNK_SIZE || garbage <= liveBytes) {
+            return;
+        }
+
+        List<ByteBuffer> oldChunks = chunks;
+        chunks = new ArrayList<>();
+        chunk = null;
+        dataBytes = 0;
+        liveBytes = 0;
+
+        ByteBuffer[] table = pages;
+        for (int i = 0; i < capacity; i++) {
+            long ref = ref(table, i);
+            if (ref != 0) {
+                ByteBuffer src = oldChunks.get((int) (ref >>> 32) - 1);
+                int srcOffset = offset(ref);
+                int recordSize = RECORD_HEADER_BYTES + src.getInt(srcOffset) + src.getInt(srcOffset + 4);
+                long newRef = reserve(recordSize);
+                chunk.put(offset(newRef), src, srcOffset, recordSize);
+                setSlot(table, i, newRef, slotHash(table, i));
+            }
+        }
+
+        oldChunks.forEach(OffHeapHashMap::release);
+    }
+
+    /**
+     * Moves all existing slots into a new table of the given capacity and releases the old one.
+     *
+     * @param newCapacity the new power-of-two number of slots.
+     */
+    private void resize(int newCapacity) {
+        ByteBuffer[] oldPages = pages;
+        int oldCapacity = capacity;
+        allocate(newCapacity);
+        ByteBuffer[] table = pages;
+
+        for (int j = 0; j < oldCapacity; j++) {
+            long ref = ref(oldPages, j);
+            if (ref != 0) {
+                int hash = slotHash(oldPages, j);
+                int i = hash & mask;
+                while (ref(table, i) != 0) {
+                    i = (i + 1) & mask;
+                }
+                setSlot(table, i, ref, hash);
+            }
+        }
+
+        for (ByteBuffer page : oldPages) {
+            release(page);
+        }
+        modCount++;
+    }
+
+    /**
+     * Removes the mapping for the specified key from the map.
+     *
+     * @param key key whose mapping is to be removed from the map.
+     * @return the previous value associated with the key, or null if there was no mapping for the key.
+     * @throws NullPointerException if the key is null.
+     * @throws IllegalStateException if the map is closed.
+     */
+    public V remove(K key) {
+        ensureOpen();
+        ByteBuffer encodedKey = encodeKey(key);
+        int i = find(encodedKey, hash(encodedKey));
+        if (i < 0) {
+            return null;
+        }
+
+        long ref = ref(pages, i);
+        V oldValue = decodeValue(ref);
+        liveBytes -= recordSize(ref);
+        removeAt(i);
+
+        if (size < shrinkThreshold && capacity > minCapacity) {
+            resize(Math.max(capacity / 2, minCapacity));
+        }
+        compactIfWasteful();
+        return oldValue;
+    }
+
+    /**
+     * Empties the given slot and shifts the following slots of the probe run back,
+     * so that every remaining entry stays reachable from its home slot.
+     *
+     * @param i the slot to empty.
+     */
+    private void removeAt(int i) {
+        ByteBuffer[] table = pages;
+        int j = i;
+
+        while (true) {
+            j = (j + 1) & mask;
+            long ref = ref(table, j);
+            if (ref == 0) {
+                break;
+            }
+            int hash = slotHash(table, j);
+            if (((j - (hash & mask)) & mask) >= ((j - i) & mask)) {
+                setSlot(table, i, ref, hash);
+                i = j;
+            }
+        }
+
+        setSlot(table, i, 0, 0);
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Removes all the mappings from the map and releases the memory of their records.
+     *
+     * @throws IllegalStateException if the map is closed.
+     */
+    public void clear() {
+        ensureOpen();
+        if (size == 0) {
+            return;
+        }
+        ByteBuffer[] oldPages = pages;
+        allocate(capacity);
+        for (ByteBuffer page : oldPages) {
+            release(page);
+        }
+        releaseChunks();
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Performs the given action for each mapping of the map, passing decoded copies of the keys and values.
+     *
+     * @param action the action to be performed for each mapping.
+     * @throws ConcurrentModificationException if the map is structurally modified during the walk.
+     * @throws IllegalStateException if the map is closed.
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        ensureOpen();
+        int expectedModCount = modCount;
+        ByteBuffer[] table = pages;
+        for (int i = 0; i < capacity && modCount == expectedModCount; i++) {
+            long ref = ref(table, i);
+            if (ref != 0) {
+                action.accept(decodeKey(ref), decodeValue(ref));
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns the amount of memory the map holds outside the Java heap.
+     *
+     * @return the size of the table and of all record chunks in bytes, or 0 if the map is closed.
+     */
+    public long offHeapBytes() {
+        return closed ? 0 : (long) capacity * SLOT_BYTES + dataBytes;
+    }
+
+    /**
+     * Checks if the map has been closed.
+     *
+     * @return true, if {@link #close()} has been called.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Releases the off-heap memory of the map. Closing a closed map has no effect.
+     * Every other operation than size(), isEmpty(), offHeapBytes() and isClosed() fails on a closed map.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (ByteBuffer page : pages) {
+            release(page);
+        }
+        pages = null;
+        releaseChunks();
+        size = 0;
+        modCount++;
+    }
+
+    private void releaseChunks() {
+        chunks.forEach(OffHeapHashMap::release);
+        chunks = new ArrayList<>();
+        chunk = null;
+        dataBytes = 0;
+        liveBytes = 0;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Map is closed");
+        }
+    }
+
+    /**
+     * Frees the memory of a direct buffer at once. If the JDK doesn't allow it, the memory is
+     * freed when the buffer is collected.
+     *
+     * @param buffer the direct buffer, which must not be used afterwards.
+     */
+    private static void release(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invokeExact(buffer);
+        } catch (IllegalArgumentException e) {
+            // Thrown for slices and duplicates; the cleaner runs when the buffer is collected instead.
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // invokeCleaner() declares no checked exceptions.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Looks up sun.misc.Unsafe.invokeCleaner(ByteBuffer), which frees a direct buffer before it's collected.
+     *
+     * @return the method bound to the Unsafe instance, or null if it is not accessible.
+     */
+    private static MethodHandle findCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,576 @@
+package org.tatiSmol;
+
+import java.util.*;
+
+/**
+ * RobinHoodHashMap class implements Map and Iterable interfaces.
+ * This is an open-addressing alternative to CustomHashMap that uses Robin Hood hashing:
+ * every slot records how far its entry is displaced from its home slot, an inserted entry
+ * takes the slot of any entry that is closer to home than itself, and removals shift the
+ * following entries back. This keeps the variance of probe lengths low, so lookups stay
+ * short even at high load factors, and a lookup for an absent key stops as soon as it
+ * meets an entry closer to home than the probe. Null keys are not supported.
+ *
+ * @param <K> the type of keys maintained by this map.
+ * @param <V> the type of mapped values.
+ */
+public class RobinHoodHashMap<K, V> extends AbstractMap<K, V> implements Iterable<Map.Entry<K, V>> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.9f;
+    private final float loadFactor;
+    private Object[] keys;
+    private Object[] values;
+    /**
+     * Displacement of the entry in each slot plus one; 0 marks an empty slot.
+     */
+    private int[] probes;
+    private int mask;
+    private int maxFill;
+    private int size = 0;
+    private int modCount = 0;
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Constructs an empty RobinHoodHashMap with the default initial capacity (16)
+     * and the default load factor (0.9).
+     */
+    public RobinHoodHashMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty RobinHoodHashMap with the custom initial capacity
+     * and the default load factor (0.9).
+     *
+     * @param initialCapacity the initial number of slots. Must be non-negative.
+     * @throws IllegalArgumentException if capacity less than 0.
+     */
+    public RobinHoodHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty RobinHoodHashMap with the custom initial capacity and load factor.
+     * The capacity is rounded up to the next power of two.
+     *
+     * @param initialCapacity the initial number of slots. Must be non-negative.
+     * @param loadFactor the fraction of slots that may be occupied before the table grows. Must be in (0, 1].
+     * @throws IllegalArgumentException if capacity less than 0 or load factor is out of range.
+     */
+    public RobinHoodHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity can't be negative");
+        }
+        if (!(loadFactor > 0 && loadFactor <= 1)) {
+            throw new IllegalArgumentException("Load factor must be in (0, 1]: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        allocate(Hashing.tableSizeFor(initialCapacity));
+    }
+
+    /**
+     * Constructs RobinHoodHashMap large enough to hold the specified map
+     * and adds all key-value pairs from it.
+     *
+     * @param m map containing the key-value pairs that will be added to the new hash map.
+     */
+    public RobinHoodHashMap(Map<? extends K, ? extends V> m) {
+        this((int) (m.size() / DEFAULT_LOAD_FACTOR) + 1, DEFAULT_LOAD_FACTOR);
+        putAll(m);
+    }
+
+    /**
+     * Allocates empty arrays of the given power-of-two capacity.
+     *
+     * @param capacity the number of slots.
+     */
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        probes = new int[capacity];
+        mask = capacity - 1;
+        maxFill = Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+
+    /**
+     * Returns the home slot of the given key.
+     *
+     * @param key the key. Must be not null.
+     * @return the slot where probing for the key starts.
+     */
+    private int slot(Object key) {
+        return Hashing.mix(key.hashCode()) & mask;
+    }
+
+    /**
+     * Returns the slot holding the given key. Only entries with the same displacement as
+     * the probe can share the key's home slot, so equals() is called on those alone, and the
+     * search stops at the first entry that is closer to its home than the probe.
+     *
+     * @param key the key to look for.
+     * @return the slot index, or -1 if the map contains no mapping for the key.
+     */
+    private int find(Object key) {
+        if (key == null) {
+            return -1;
+        }
+
+        int[] ps = probes;
+        Object[] ks = keys;
+        int i = slot(key);
+
+        for (int probe = 1; ps[i] >= probe; probe++) {
+            if (ps[i] == probe) {
+                Object k = ks[i];
+                if (k == key || k.equals(key)) {
+                    return i;
+                }
+            }
+            i = (i + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the number of key-value pairs in the map.
+     *
+     * @return the number of key-value mappings in this map.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return true, if size equals 0.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if the map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested.
+     * @return true, if the map contains a mapping for the specified key.
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Checks if the map contains a mapping for the specified value.
+     *
+     * @param value value whose presence in this map is to be tested.
+     * @return true, if the map contains a mapping for the specified value.
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        int[] ps = probes;
+        Object[] vs = values;
+
+        for (int i = 0; i < ps.length; i++) {
+            if (ps[i] != 0 && Objects.equals(vs[i], value)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped.
+     *
+     * @param key the key whose associated value is to be returned.
+     * @return the value to which the specified key is mapped, or null if the map contains no mapping for the key.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int i = find(key);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    /**
+     * Associates the specified value with the specified key in the map.
+     *
+     * @param key key with which the specified value is to be associated. Must be not null.
+     * @param value value to be associated with the specified key.
+     * @return the previous value associated with the key, or null if there was no mapping for the key.
+     * @throws NullPointerException if the key is null.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Objects.requireNonNull(key, "Null keys are not supported");
+
+        int i = find(key);
+        if (i >= 0) {
+            V oldValue = (V) values[i];
+            values[i] = value;
+            return oldValue;
+        }
+
+        if (size >= maxFill) {
+            resize(keys.length * 2);
+        }
+
+        insert(key, value);
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Inserts an entry whose key is known to be absent. Walking from the home slot, the entry
+     * being placed swaps with every entry that is closer to its home, and the displaced entry
+     * continues the walk until an empty slot is found.
+     *
+     * @param key the key to insert.
+     * @param value the value to insert.
+     */
+    private void insert(Object key, Object value) {
+        int[] ps = probes;
+        Object[] ks = keys;
+        Object[] vs = values;
+        int i = slot(key);
+        int probe = 1;
+
+        while (ps[i] != 0) {
+            if (ps[i] < probe) {
+                Object k = ks[i];
+                Object v = vs[i];
+                int p = ps[i];
+                ks[i] = key;
+                vs[i] = value;
+                ps[i] = probe;
+                key = k;
+                value = v;
+                probe = p;
+            }
+            i = (i + 1) & mask;
+            probe++;
+        }
+
+        ks[i] = key;
+        vs[i] = value;
+        ps[i] = probe;
+    }
+
+    /**
+     * Moves all existing entries into new arrays of the given capacity.
+     *
+     * @param newCapacity the new power-of-two number of slots.
+     */
+    private void resize(int newCapacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldProbes = probes;
+        allocate(newCapacity);
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldProbes[j] != 0) {
+                insert(oldKeys[j], oldValues[j]);
+            }
+        }
+    }
+
+    /**
+     * Removes the mapping for the specified key from the map.
+     *
+     * @param key key whose mapping is to be removed from the map.
+     * @return the previous value associated with the key, or null if there was no mapping for the key.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int i = find(key);
+        if (i < 0) {
+            return null;
+        }
+
+        V oldValue = (V) values[i];
+        removeAt(i, 0, null);
+        return oldValue;
+    }
+
+    /**
+     * Empties the given slot and shifts the following displaced entries back by one slot.
+     * Entries moved from a slot below {@code scanFrom} to a slot at or above it are
+     * added to {@code wrapped}, so that an iterator walking the slots downwards still returns them.
+     *
+     * @param i the slot to empty.
+     * @param scanFrom the lowest slot already visited by an iterator, or 0 if there is none.
+     * @param wrapped the list collecting keys moved out of the unvisited region, or null.
+     */
+    private void removeAt(int i, int scanFrom, List<Object> wrapped) {
+        int[] ps = probes;
+        Object[] ks = keys;
+        Object[] vs = values;
+        int j = (i + 1) & mask;
+
+        while (ps[j] > 1) {
+            if (wrapped != null && j < scanFrom && i >= scanFrom) {
+                wrapped.add(ks[j]);
+            }
+            ks[i] = ks[j];
+            vs[i] = vs[j];
+            ps[i] = ps[j] - 1;
+            i = j;
+            j = (j + 1) & mask;
+        }
+
+        ks[i] = null;
+        vs[i] = null;
+        ps[i] = 0;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Removes all the mappings from the map.
+     */
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        Arrays.fill(probes, 0);
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Computes the probe-length statistics of the current table. The probe length of an entry
+     * is the number of slots a successful lookup for its key reads.
+     *
+     * @return the probe-length statistics.
+     */
+    public ProbeStats probeStats() {
+        int[] ps = probes;
+        long sum = 0;
+        long sumOfSquares = 0;
+        int max = 0;
+
+        for (int p : ps) {
+            if (p != 0) {
+                sum += p;
+                sumOfSquares += (long) p * p;
+                max = Math.max(max, p);
+            }
+        }
+
+        if (size == 0) {
+            return new ProbeStats(0, ps.length, 0, 0, 0);
+        }
+        double mean = (double) sum / size;
+        double variance = (double) sumOfSquares / size - mean * mean;
+        return new ProbeStats(size, ps.length, mean, variance, max);
+    }
+
+    /**
+     * Returns a set view of all key-value pairs (entries) contained in this map.
+     * The set is backed by the map, so changes to the map are reflected in the set.
+     *
+     * @return set view of all key-value pairs contained in this map.
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> es = entrySet;
+        return es != null ? es : (entrySet = new EntrySet());
+    }
+
+    /**
+     * Returns an iterator over all key-value pairs contained in this map.
+     *
+     * @return an iterator over the entries in the map.
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator();
+    }
+
+    /**
+     * Probe-length statistics of a RobinHoodHashMap.
+     *
+     * @param size the number of entries.
+     * @param capacity the number of slots.
+     * @param mean the average probe length of a successful lookup.
+     * @param variance the variance of the probe length.
+     * @param max the longest probe length.
+     */
+    public record ProbeStats(int size, int capacity, double mean, double variance, int max) {
+    }
+
+    /**
+     * The EntrySet inner class is the live entry set view of the map.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            RobinHoodHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e)) {
+                return false;
+            }
+            int i = find(e.getKey());
+            return i >= 0 && Objects.equals(values[i], e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            RobinHoodHashMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+            return true;
+        }
+    }
+
+    /**
+     * The SlotEntry inner class is a map entry that reads and writes through to the slot
+     * holding its key. If the key has been moved by a removal or a resize, the slot is looked up again.
+     */
+    private final class SlotEntry implements Map.Entry<K, V> {
+        private final K key;
+        private int index;
+
+        SlotEntry(K key, int index) {
+            this.key = key;
+            this.index = index;
+        }
+
+        private int index() {
+            if (index >= keys.length || keys[index] != key) {
+                index = find(key);
+                if (index < 0) {
+                    throw new IllegalStateException("Entry is no longer in the map");
+                }
+            }
+            return index;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return (V) values[index()];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V setValue(V value) {
+            int i = index();
+            V oldValue = (V) values[i];
+            values[i] = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e
+                    && key.equals(e.getKey())
+                    && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
+    /**
+     * The EntryIterator inner class walks the slots from the last one down to the first,
+     * so that backward shifts caused by {@link #remove()} only move already visited entries,
+     * except for entries of a run that wraps around the end of the table; those are
+     * remembered and returned after the walk.
+     */
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private int pos = keys.length;
+        private int remaining = size;
+        private int last = -1;
+        private K lastKey;
+        private List<Object> wrapped;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+
+            while (pos > 0) {
+                if (probes[--pos] != 0) {
+                    last = pos;
+                    lastKey = (K) keys[pos];
+                    return new SlotEntry(lastKey, pos);
+                }
+            }
+
+            last = -1;
+            lastKey = (K) wrapped.remove(wrapped.size() - 1);
+            return new SlotEntry(lastKey, 0);
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            if (last >= 0) {
+                if (wrapped == null) {
+                    wrapped = new ArrayList<>(2);
+                }
+                removeAt(last, pos, wrapped);
+            } else {
+                RobinHoodHashMap.this.remove(lastKey);
+            }
+
+            lastKey = null;
+            expectedModCount = modCount;
+        }
+    }
+}
@@ -0,0 +1,550 @@
+package org.tatiSmol;
+
+import java.util.*;
+
+/**
+ * SwissHashMap class implements Map and Iterable interfaces.
+ * This is an open-addressing alternative to CustomHashMap modelled on Abseil's SwissTable.
+ * Slots are organized in groups of eight, and every slot has a control byte that is either
+ * EMPTY, DELETED or, for a full slot, the low 7 bits of the key's hash. The control bytes
+ * of a group are packed into one long, so a lookup compares the hash fragment against all
+ * eight slots of a group with a few word-wide (SWAR) bit operations, and calls equals()
+ * only for slots whose fragment matches. A lookup for an absent key usually ends after
+ * reading the control word of one group. Null keys are not supported.
+ *
+ * @param <K> the type of keys maintained by this map.
+ * @param <V> the type of mapped values.
+ */
+public class SwissHashMap<K, V> extends AbstractMap<K, V> implements Iterable<Map.Entry<K, V>> {
+    private static final int GROUP_WIDTH = 8;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final long EMPTY = 0x80L;
+    private static final long DELETED = 0xFEL;
+    private static final long LSBS = 0x0101010101010101L;
+    private static final long MSBS = 0x8080808080808080L;
+    private static final long ALL_EMPTY = EMPTY * LSBS;
+    /**
+     * Control bytes, one long per group of eight slots; byte i of a word belongs to slot i of the group.
+     */
+    private long[] ctrl;
+    private Object[] keys;
+    private Object[] values;
+    private int groupMask;
+    private int growthLeft;
+    private int size = 0;
+    private int modCount = 0;
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Constructs an empty SwissHashMap with the default initial capacity (16).
+     */
+    public SwissHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty SwissHashMap with the custom initial capacity.
+     * The capacity is rounded up to a power-of-two number of groups of eight slots.
+     *
+     * @param initialCapacity the initial number of slots. Must be non-negative.
+     * @throws IllegalArgumentException if capacity less than 0.
+     */
+    public SwissHashMap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity can't be negative");
+        }
+        allocate(Hashing.tableSizeFor((initialCapacity + GROUP_WIDTH - 1) / GROUP_WIDTH));
+    }
+
+    /**
+     * Constructs SwissHashMap large enough to hold the specified map
+     * and adds all key-value pairs from it.
+     *
+     * @param m map containing the key-value pairs that will be added to the new hash map.
+     */
+    public SwissHashMap(Map<? extends K, ? extends V> m) {
+        this(m.size() / 7 * 8 + GROUP_WIDTH);
+        putAll(m);
+    }
+
+    /**
+     * Allocates an empty table with the given power-of-two number of groups.
+     *
+     * @param groups the number of groups.
+     */
+    private void allocate(int groups) {
+        int capacity = groups * GROUP_WIDTH;
+        ctrl = new long[groups];
+        Arrays.fill(ctrl, ALL_EMPTY);
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        groupMask = groups - 1;
+        growthLeft = capacity - capacity / 8 - size;
+    }
+
+    /**
+     * Returns a word with the high bit set in every byte of the group that equals the given hash fragment.
+     * Like Abseil's portable implementation it may report a false match in a byte above a true one,
+     * so every match must be confirmed by comparing keys.
+     *
+     * @param group the control word of a group.
+     * @param h2 the 7-bit hash fragment.
+     * @return the match mask.
+     */
+    private static long match(long group, int h2) {
+        long x = group ^ (LSBS * h2);
+        return (x - LSBS) & ~x & MSBS;
+    }
+
+    /**
+     * Returns a word with the high bit set in every EMPTY byte of the group.
+     *
+     * @param group the control word of a group.
+     * @return the match mask.
+     */
+    private static long matchEmpty(long group) {
+        return group & ~(group << 6) & MSBS;
+    }
+
+    /**
+     * Returns a word with the high bit set in every EMPTY or DELETED byte of the group.
+     *
+     * @param group the control word of a group.
+     * @return the match mask.
+     */
+    private static long matchEmptyOrDeleted(long group) {
+        return group & ~(group << 7) & MSBS;
+    }
+
+    /**
+     * Returns the slot index within a group of the lowest match in a match mask.
+     *
+     * @param mask a non-zero match mask.
+     * @return the slot index within the group, from 0 to 7.
+     */
+    private static int lowestSlot(long mask) {
+        return Long.numberOfTrailingZeros(mask) >>> 3;
+    }
+
+    /**
+     * Returns the control byte of the given slot.
+     *
+     * @param slot the slot index.
+     * @return the control byte.
+     */
+    private long ctrlAt(int slot) {
+        return (ctrl[slot >>> 3] >>> ((slot & (GROUP_WIDTH - 1)) << 3)) & 0xFF;
+    }
+
+    /**
+     * Sets the control byte of the given slot.
+     *
+     * @param slot the slot index.
+     * @param value the control byte.
+     */
+    private void setCtrl(int slot, long value) {
+        int shift = (slot & (GROUP_WIDTH - 1)) << 3;
+        int g = slot >>> 3;
+        ctrl[g] = (ctrl[g] & ~(0xFFL << shift)) | (value << shift);
+    }
+
+    /**
+     * Returns the slot holding the given key.
+     *
+     * @param key the key to look for.
+     * @return the slot index, or -1 if the map contains no mapping for the key.
+     */
+    private int find(Object key) {
+        if (key == null) {
+            return -1;
+        }
+
+        int h = Hashing.mix(key.hashCode());
+        int h2 = h & 0x7F;
+        int g = (h >>> 7) & groupMask;
+        long[] cs = ctrl;
+        Object[] ks = keys;
+
+        for (int step = 1; ; step++) {
+            long group = cs[g];
+            for (long m = match(group, h2); m != 0; m &= m - 1) {
+                int slot = (g << 3) + lowestSlot(m);
+                Object k = ks[slot];
+                if (k != null && (k == key || k.equals(key))) {
+                    return slot;
+                }
+            }
+            if (matchEmpty(group) != 0) {
+                return -1;
+            }
+            g = (g + step) & groupMask;
+        }
+    }
+
+    /**
+     * Returns the first EMPTY or DELETED slot on the probe sequence of the given hash.
+     *
+     * @param h the mixed hash.
+     * @return the slot index.
+     */
+    private int findInsertSlot(int h) {
+        int g = (h >>> 7) & groupMask;
+
+        for (int step = 1; ; step++) {
+            long m = matchEmptyOrDeleted(ctrl[g]);
+            if (m != 0) {
+                return (g << 3) + lowestSlot(m);
+            }
+            g = (g + step) & groupMask;
+        }
+    }
+
+    /**
+     * Returns the number of key-value pairs in the map.
+     *
+     * @return the number of key-value mappings in this map.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return true, if size equals 0.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if the map contains a mapping for the specified key.
+     *
+     * @param key key whose presence in this map is to be tested.
+     * @return true, if the map contains a mapping for the specified key.
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Checks if the map contains a mapping for the specified value.
+     *
+     * @param value value whose presence in this map is to be tested.
+     * @return true, if the map contains a mapping for the specified value.
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        Object[] ks = keys;
+        Object[] vs = values;
+
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != null && Objects.equals(vs[i], value)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped.
+     *
+     * @param key the key whose associated value is to be returned.
+     * @return the value to which the specified key is mapped, or null if the map contains no mapping for the key.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int i = find(key);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    /**
+     * Associates the specified value with the specified key in the map.
+     *
+     * @param key key with which the specified value is to be associated. Must be not null.
+     * @param value value to be associated with the specified key.
+     * @return the previous value associated with the key, or null if there was no mapping for the key.
+     * @throws NullPointerException if the key is null.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Objects.requireNonNull(key, "Null keys are not supported");
+
+        int i = find(key);
+        if (i >= 0) {
+            V oldValue = (V) values[i];
+            values[i] = value;
+            return oldValue;
+        }
+
+        int h = Hashing.mix(key.hashCode());
+        i = findInsertSlot(h);
+        if (growthLeft == 0 && ctrlAt(i) == EMPTY) {
+            rehash();
+            i = findInsertSlot(h);
+        }
+
+        if (ctrlAt(i) == EMPTY) {
+            growthLeft--;
+        }
+        setCtrl(i, h & 0x7F);
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Rebuilds the table without DELETED slots. The table doubles in size unless
+     * tombstones, rather than live entries, used up most of the free slots.
+     */
+    private void rehash() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int groups = ctrl.length;
+        int capacity = groups * GROUP_WIDTH;
+        allocate(size * 2 > capacity - capacity / 8 ? groups * 2 : groups);
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            Object k = oldKeys[j];
+            if (k != null) {
+                int h = Hashing.mix(k.hashCode());
+                int i = findInsertSlot(h);
+                setCtrl(i, h & 0x7F);
+                keys[i] = k;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * Removes the mapping for the specified key from the map.
+     *
+     * @param key key whose mapping is to be removed from the map.
+     * @return the previous value associated with the key, or null if there was no mapping for the key.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int i = find(key);
+        if (i < 0) {
+            return null;
+        }
+
+        V oldValue = (V) values[i];
+        removeAt(i);
+        return oldValue;
+    }
+
+    /**
+     * Empties the given slot. The slot is marked EMPTY if its group still has an EMPTY slot,
+     * because then no probe sequence has ever continued past this group; otherwise it is
+     * marked DELETED so that lookups keep probing past it.
+     *
+     * @param i the slot to empty.
+     */
+    private void removeAt(int i) {
+        if (matchEmpty(ctrl[i >>> 3]) != 0) {
+            setCtrl(i, EMPTY);
+            growthLeft++;
+        } else {
+            setCtrl(i, DELETED);
+        }
+        keys[i] = null;
+        values[i] = null;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Removes all the mappings from the map.
+     */
+    @Override
+    public void clear() {
+        if (size == 0 && growthLeft == keys.length - keys.length / 8) {
+            return;
+        }
+        Arrays.fill(ctrl, ALL_EMPTY);
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+        growthLeft = keys.length - keys.length / 8;
+        modCount++;
+    }
+
+    /**
+     * Returns a set view of all key-value pairs (entries) contained in this map.
+     * The set is backed by the map, so changes to the map are reflected in the set.
+     *
+     * @return set view of all key-value pairs contained in this map.
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> es = entrySet;
+        return es != null ? es : (entrySet = new EntrySet());
+    }
+
+    /**
+     * Returns an iterator over all key-value pairs contained in this map.
+     *
+     * @return an iterator over the entries in the map.
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator();
+    }
+
+    /**
+     * The EntrySet inner class is the live entry set view of the map.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            SwissHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e)) {
+                return false;
+            }
+            int i = find(e.getKey());
+            return i >= 0 && Objects.equals(values[i], e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            SwissHashMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+            return true;
+        }
+    }
+
+    /**
+     * The SlotEntry inner class is a map entry that reads and writes through to the slot
+     * holding its key. If the key has been moved by a rehash, the slot is looked up again.
+     */
+    private final class SlotEntry implements Map.Entry<K, V> {
+        private final K key;
+        private int index;
+
+        SlotEntry(K key, int index) {
+            this.key = key;
+            this.index = index;
+        }
+
+        private int index() {
+            if (index >= keys.length || keys[index] != key) {
+                index = find(key);
+                if (index < 0) {
+                    throw new IllegalStateException("Entry is no longer in the map");
+                }
+            }
+            return index;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return (V) values[index()];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V setValue(V value) {
+            int i = index();
+            V oldValue = (V) values[i];
+            values[i] = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e
+                    && key.equals(e.getKey())
+                    && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
+    /**
+     * The EntryIterator inner class walks the slots in order. Removing an entry never moves
+     * other entries, so {@link #remove()} needs no bookkeeping.
+     */
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private int next = 0;
+        private int last = -1;
+        private int remaining = size;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+
+            while (keys[next] == null) {
+                next++;
+            }
+            last = next++;
+            return new SlotEntry((K) keys[last], last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            removeAt(last);
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * Hash map implementations. Besides the hand-written maps, the primitive maps from int and long keys
+ * to int, long and double values (IntIntMap through LongDoubleMap) are generated from one template
+ * by the hashmap-generator module while this package is compiled.
+ */
+@GeneratePrimitiveMaps(keys = {INT, LONG}, values = {INT, LONG, DOUBLE})
+package org.tatiSmol;
+
+import org.tatiSmol.generator.GeneratePrimitiveMaps;
+
+import static org.tatiSmol.generator.PrimitiveType.*;
@@ -0,0 +1,233 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.tatiSmol.CompactHashMap;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactHashMapTest {
+    CompactHashMap<Integer, String> map;
+
+    @BeforeEach
+    public void setup() {
+        map = new CompactHashMap<>();
+        for (int i = 1; i <= 1_000_000; i++) {
+            map.put(i, "value" + i);
+        }
+    }
+
+    @Test
+    public void testConstructorWithCollection() {
+        map.clear();
+        assertEquals(0, map.size());
+        assertTrue(map.isEmpty());
+
+        Map<Integer, String> anotherMap = new HashMap<>();
+        for (int i = 1; i <= 1_000_000; i++) {
+            anotherMap.put(i, "value" + i);
+        }
+
+        map = new CompactHashMap<>(anotherMap);
+        assertEquals(anotherMap.size(), map.size());
+        assertEquals(anotherMap, map);
+    }
+
+    @Test
+    public void testGet() {
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertEquals("value" + i, map.get(i));
+        }
+        assertNull(map.get(0));
+        assertNull(map.get(null));
+    }
+
+    @Test
+    public void testPutReplacesValue() {
+        assertEquals("value7", map.put(7, "seven"));
+        assertEquals("seven", map.get(7));
+        assertEquals(1_000_000, map.size());
+    }
+
+    @Test
+    public void testRemove() {
+        for (int i = 1; i <= 1_000_000; i += 2) {
+            assertEquals("value" + i, map.remove(i));
+        }
+
+        for (int i = 1; i <= 1_000_000; i++) {
+            if (i % 2 == 1) {
+                assertNull(map.get(i));
+            } else {
+                assertEquals("value" + i, map.get(i));
+            }
+        }
+        assertEquals(500_000, map.size());
+    }
+
+    @Test
+    public void testContainsKey() {
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertTrue(map.containsKey(i));
+        }
+        assertFalse(map.containsKey(1_000_001));
+    }
+
+    @Test
+    public void testContainsValue() {
+        for (int i = 1; i <= 1_000_000; i += 20_000) {
+            assertTrue(map.containsValue("value" + i));
+        }
+        assertFalse(map.containsValue("value0"));
+    }
+
+    @Test
+    public void testKeySet() {
+        Set<Integer> keys = map.keySet();
+        assertTrue(keys.contains(10));
+        assertTrue(keys.contains(500_001));
+        assertEquals(1_000_000, keys.size());
+    }
+
+    @Test
+    public void testIterator() {
+        int count = 0;
+        for (Map.Entry<Integer, String> entry : map) {
+            assertEquals("value" + entry.getKey(), entry.getValue());
+            count++;
+        }
+        assertEquals(1_000_000, count);
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        Iterator<Map.Entry<Integer, String>> iterator = map.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, String> entry = iterator.next();
+            if (entry.getKey() % 3 == 0) {
+                iterator.remove();
+            }
+            count++;
+        }
+
+        assertEquals(1_000_000, count);
+        assertEquals(1_000_000 - 333_333, map.size());
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertEquals(i % 3 != 0, map.containsKey(i));
+        }
+    }
+
+    @Test
+    public void testInsertionOrder() {
+        int expected = 1;
+        for (Map.Entry<Integer, String> entry : map) {
+            assertEquals(expected, entry.getKey());
+            expected++;
+        }
+
+        map.remove(1);
+        map.put(1, "again");
+        assertEquals(2, map.keySet().iterator().next());
+        assertEquals("again", new ArrayList<>(map.values()).get(999_999));
+    }
+
+    @Test
+    public void testIndexWidthsAgainstLinkedHashMap() {
+        Random random = new Random(3);
+
+        for (int bound : new int[]{50, 100, 20_000, 40_000, 200_000}) {
+            CompactHashMap<Integer, Integer> compact = new CompactHashMap<>(0);
+            Map<Integer, Integer> expected = new LinkedHashMap<>();
+
+            for (int i = 0; i < bound * 4; i++) {
+                int key = random.nextInt(bound);
+                if (random.nextInt(4) > 0) {
+                    assertEquals(expected.put(key, i), compact.put(key, i));
+                } else {
+                    assertEquals(expected.remove(key), compact.remove(key));
+                }
+            }
+
+            assertEquals(expected.size(), compact.size());
+            assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(compact.keySet()));
+            assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(compact.values()));
+        }
+    }
+
+    @Test
+    public void testChurnCompactsEntries() {
+        CompactHashMap<Integer, Integer> churn = new CompactHashMap<>();
+        for (int i = 0; i < 1_000_000; i++) {
+            churn.put(i, i);
+            if (i >= 10) {
+                assertEquals(i - 10, churn.remove(i - 10));
+            }
+        }
+
+        assertEquals(10, churn.size());
+        assertEquals(List.of(999_990, 999_991, 999_992, 999_993, 999_994,
+                999_995, 999_996, 999_997, 999_998, 999_999), new ArrayList<>(churn.keySet()));
+    }
+
+    @Test
+    public void testViewsRemoveThroughIterator() {
+        Iterator<Integer> keys = map.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next() % 2 == 0) {
+                keys.remove();
+            }
+        }
+        Iterator<String> values = map.values().iterator();
+        while (values.hasNext()) {
+            if (values.next().endsWith("5")) {
+                values.remove();
+            }
+        }
+
+        assertEquals(400_000, map.size());
+        assertTrue(map.containsKey(1));
+        assertFalse(map.containsKey(2));
+        assertFalse(map.containsKey(5));
+        assertTrue(map.keySet().remove(1));
+        assertFalse(map.keySet().remove(1));
+    }
+
+    @Test
+    public void testFailFastIterator() {
+        Iterator<Map.Entry<Integer, String>> iterator = map.iterator();
+        iterator.next();
+        map.put(0, "value0");
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    @Test
+    public void testEntrySetValue() {
+        for (Map.Entry<Integer, String> entry : map.entrySet()) {
+            entry.setValue("new" + entry.getKey());
+        }
+        assertEquals("new10", map.get(10));
+    }
+
+    @Test
+    public void testCollision() {
+        CompactHashMap<String, Integer> strings = new CompactHashMap<>();
+        String key1 = "FB";
+        String key2 = "Ea";
+
+        assertEquals(key1.hashCode(), key2.hashCode());
+
+        strings.put(key1, 1);
+        strings.put(key2, 2);
+
+        assertEquals(1, strings.get(key1));
+        assertEquals(2, strings.get(key2));
+        assertEquals(1, strings.remove(key1));
+        assertEquals(2, strings.get(key2));
+    }
+
+    @Test
+    public void testNullKey() {
+        assertThrows(NullPointerException.class, () -> map.put(null, "value"));
+    }
+}
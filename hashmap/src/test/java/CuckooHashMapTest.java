@@ -0,0 +1,203 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.tatiSmol.CuckooHashMap;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CuckooHashMapTest {
+    CuckooHashMap<Integer, String> map;
+
+    @BeforeEach
+    public void setup() {
+        map = new CuckooHashMap<>();
+        for (int i = 1; i <= 1_000_000; i++) {
+            map.put(i, "value" + i);
+        }
+    }
+
+    @Test
+    public void testConstructorWithCollection() {
+        map.clear();
+        assertEquals(0, map.size());
+        assertTrue(map.isEmpty());
+
+        Map<Integer, String> anotherMap = new HashMap<>();
+        for (int i = 1; i <= 1_000_000; i++) {
+            anotherMap.put(i, "value" + i);
+        }
+
+        map = new CuckooHashMap<>(anotherMap);
+        assertEquals(anotherMap.size(), map.size());
+        assertEquals(anotherMap, map);
+    }
+
+    @Test
+    public void testGet() {
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertEquals("value" + i, map.get(i));
+        }
+        assertNull(map.get(0));
+        assertNull(map.get(null));
+    }
+
+    @Test
+    public void testPutReplacesValue() {
+        assertEquals("value7", map.put(7, "seven"));
+        assertEquals("seven", map.get(7));
+        assertEquals(1_000_000, map.size());
+    }
+
+    @Test
+    public void testRemove() {
+        for (int i = 1; i <= 1_000_000; i += 2) {
+            assertEquals("value" + i, map.remove(i));
+        }
+
+        for (int i = 1; i <= 1_000_000; i++) {
+            if (i % 2 == 1) {
+                assertNull(map.get(i));
+            } else {
+                assertEquals("value" + i, map.get(i));
+            }
+        }
+        assertEquals(500_000, map.size());
+    }
+
+    @Test
+    public void testContainsKey() {
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertTrue(map.containsKey(i));
+        }
+        assertFalse(map.containsKey(1_000_001));
+    }
+
+    @Test
+    public void testContainsValue() {
+        for (int i = 1; i <= 1_000_000; i += 20_000) {
+            assertTrue(map.containsValue("value" + i));
+        }
+        assertFalse(map.containsValue("value0"));
+    }
+
+    @Test
+    public void testKeySet() {
+        Set<Integer> keys = map.keySet();
+        assertTrue(keys.contains(10));
+        assertTrue(keys.contains(500_001));
+        assertEquals(1_000_000, keys.size());
+    }
+
+    @Test
+    public void testIterator() {
+        int count = 0;
+        for (Map.Entry<Integer, String> entry : map) {
+            assertEquals("value" + entry.getKey(), entry.getValue());
+            count++;
+        }
+        assertEquals(1_000_000, count);
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        Iterator<Map.Entry<Integer, String>> iterator = map.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, String> entry = iterator.next();
+            if (entry.getKey() % 3 == 0) {
+                iterator.remove();
+            }
+            count++;
+        }
+
+        assertEquals(1_000_000, count);
+        assertEquals(1_000_000 - 333_333, map.size());
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertEquals(i % 3 != 0, map.containsKey(i));
+        }
+    }
+
+    @Test
+    public void testFailFastIterator() {
+        Iterator<Map.Entry<Integer, String>> iterator = map.iterator();
+        iterator.next();
+        map.put(0, "value0");
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    @Test
+    public void testEntrySetValue() {
+        for (Map.Entry<Integer, String> entry : map.entrySet()) {
+            entry.setValue("new" + entry.getKey());
+        }
+        assertEquals("new10", map.get(10));
+    }
+
+    @Test
+    public void testCollision() {
+        CuckooHashMap<String, Integer> strings = new CuckooHashMap<>();
+        String key1 = "FB";
+        String key2 = "Ea";
+
+        assertEquals(key1.hashCode(), key2.hashCode());
+
+        strings.put(key1, 1);
+        strings.put(key2, 2);
+
+        assertEquals(1, strings.get(key1));
+        assertEquals(2, strings.get(key2));
+        assertEquals(1, strings.remove(key1));
+        assertEquals(2, strings.get(key2));
+    }
+
+    @Test
+    public void testNullKey() {
+        assertThrows(NullPointerException.class, () -> map.put(null, "value"));
+    }
+
+    @Test
+    public void testAtMostTwoBucketsAndStash() {
+        CuckooHashMap<Integer, Integer> cuckoo = new CuckooHashMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(3);
+
+        for (int i = 0; i < 300_000; i++) {
+            int key = random.nextInt(20_000);
+            if (random.nextInt(3) > 0) {
+                assertEquals(expected.put(key, i), cuckoo.put(key, i));
+            } else {
+                assertEquals(expected.remove(key), cuckoo.remove(key));
+            }
+            assertTrue(cuckoo.stashSize() <= 4);
+        }
+
+        assertEquals(expected, cuckoo);
+    }
+
+    @Test
+    public void testEqualHashCodes() {
+        CuckooHashMap<Collider, Integer> cuckoo = new CuckooHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            cuckoo.put(new Collider(i), i);
+        }
+
+        assertEquals(100, cuckoo.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, cuckoo.get(new Collider(i)));
+        }
+        for (int i = 0; i < 100; i += 2) {
+            assertEquals(i, cuckoo.remove(new Collider(i)));
+        }
+        assertEquals(50, cuckoo.size());
+        assertNull(cuckoo.get(new Collider(0)));
+        assertEquals(1, cuckoo.get(new Collider(1)));
+    }
+
+    record Collider(int id) {
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
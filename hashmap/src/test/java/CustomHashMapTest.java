@@ -0,0 +1,1183 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.tatiSmol.CustomHashMap;
+import org.tatiSmol.GrowthPolicy;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CustomHashMapTest {
+    CustomHashMap<Integer, String> map;
+
+    @BeforeEach
+    public void setup() {
+        map = new CustomHashMap<>();
+        for (int i = 1; i <= 1_000_000; i++) {
+            map.put(i, "value" + i);
+        }
+    }
+
+    @Test
+    public void testConstructorWithCollection() {
+        map.clear();
+        assertEquals(0, map.size());
+        assertTrue(map.isEmpty());
+
+        Map<Integer, String> anotherMap = new HashMap<>();
+        for (int i = 1; i <= 1_000_000; i++) {
+            anotherMap.put(i, "value" + i);
+        }
+
+        map = new CustomHashMap<>(anotherMap);
+        assertEquals(anotherMap.size(), map.size());
+    }
+
+    @Test
+    public void testGet() {
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertEquals("value" + i, map.get(i));
+        }
+    }
+
+    @Test
+    public void testRemove() {
+        for (int i = 1; i <= 1_000_000; i++) {
+            map.remove(i);
+        }
+
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertNull(map.get(i));
+        }
+    }
+
+    @Test
+    public void testContainsKey() {
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertTrue(map.containsKey(i));
+        }
+    }
+
+    @Test
+    public void testContainsValue() {
+        for (int i = 1; i <= 1_000_000; i += 200) {
+            assertTrue(map.containsValue("value" + i));
+        }
+    }
+
+    @Test
+    public void testKeySet() {
+        Set<Integer> keys = map.keySet();
+        assertTrue(keys.contains(10));
+        assertTrue(keys.contains(500_001));
+    }
+
+    @Test
+    public void testValues() {
+        Collection<String> values = map.values();
+        assertTrue(values.contains("value10"));
+        assertTrue(values.contains("value500001"));
+    }
+
+    @Test
+    public void testEntrySet() {
+        map.clear();
+
+        for (int i = 0; i < 100_000; i++) {
+            map.remove(i);
+            map.put(i, "value" + i);
+        }
+
+        Set<Map.Entry<Integer, String>> entries = map.entrySet();
+        for (Map.Entry<Integer, String> entry : entries) {
+            assertTrue(map.containsKey(entry.getKey()));
+            assertTrue(map.containsValue(entry.getValue()));
+        }
+    }
+
+    @Test
+    public void testIterator() {
+        map.clear();
+
+        for (int i = 0; i < 100_000; i++) {
+            map.remove(i);
+            map.put(i, "value" + i);
+        }
+
+        for (Map.Entry<Integer, String> entry : map) {
+            assertTrue(map.containsKey(entry.getKey()));
+            assertTrue(map.containsValue(entry.getValue()));
+        }
+    }
+
+    @Test
+    public void testCollision() {
+        String key1 = "FB";
+        String key2 = "Ea";
+
+        assertEquals(key1.hashCode(), key2.hashCode());
+
+        map.put(1, key1);
+        map.put(2, key2);
+
+        assertEquals(key1, map.get(1));
+        assertEquals(key2, map.get(2));
+    }
+
+    @Test
+    public void testExtremeHashCodes() {
+        map.clear();
+
+        map.put(Integer.MIN_VALUE, "min");
+        map.put(Integer.MAX_VALUE, "max");
+        map.put(Integer.MAX_VALUE - 526, "wraps");
+
+        assertEquals("min", map.get(Integer.MIN_VALUE));
+        assertEquals("max", map.get(Integer.MAX_VALUE));
+        assertEquals("wraps", map.get(Integer.MAX_VALUE - 526));
+    }
+
+    @Test
+    public void testZeroInitialCapacity() {
+        map = new CustomHashMap<>(0);
+
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "value" + i);
+        }
+
+        assertEquals(100, map.size());
+        assertEquals("value42", map.get(42));
+    }
+
+    @Test
+    public void testKeysDifferingInHighBits() {
+        map.clear();
+
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i << 16, "value" + i);
+        }
+
+        assertEquals(10_000, map.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals("value" + i, map.get(i << 16));
+        }
+    }
+
+    @Test
+    public void testTreeifiedBinWithComparableKeys() {
+        CustomHashMap<ComparableCollider, Integer> colliding = new CustomHashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            colliding.put(new ComparableCollider(i), i);
+        }
+
+        assertEquals(2_000, colliding.size());
+        for (int i = 0; i < 2_000; i++) {
+            assertEquals(i, colliding.get(new ComparableCollider(i)));
+        }
+        assertNull(colliding.get(new ComparableCollider(2_000)));
+
+        for (int i = 0; i < 2_000; i += 2) {
+            assertEquals(i, colliding.remove(new ComparableCollider(i)));
+        }
+        assertEquals(1_000, colliding.size());
+        assertEquals(1_000, colliding.entrySet().size());
+        for (int i = 0; i < 2_000; i++) {
+            assertEquals(i % 2 == 1, colliding.containsKey(new ComparableCollider(i)));
+        }
+    }
+
+    @Test
+    public void testTreeifiedBinWithNonComparableKeys() {
+        CustomHashMap<Collider, Integer> colliding = new CustomHashMap<>();
+        for (int i = 0; i < 500; i++) {
+            colliding.put(new Collider(i), i);
+        }
+
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, colliding.put(new Collider(i), i + 1));
+        }
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i + 1, colliding.remove(new Collider(i)));
+        }
+        assertTrue(colliding.isEmpty());
+    }
+
+    @Test
+    public void testTreeifiedBinsAgainstHashMap() {
+        CustomHashMap<Collider, Integer> colliding = new CustomHashMap<>();
+        Map<Collider, Integer> expected = new HashMap<>();
+        Random random = new Random(11);
+
+        for (int i = 0; i < 100_000; i++) {
+            Collider key = new Collider(random.nextInt(3_000));
+            if (random.nextInt(3) > 0) {
+                assertEquals(expected.put(key, i), colliding.put(key, i));
+            } else {
+                assertEquals(expected.remove(key), colliding.remove(key));
+            }
+        }
+
+        assertEquals(expected.size(), colliding.size());
+        for (Map.Entry<Collider, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), colliding.get(entry.getKey()));
+        }
+        assertEquals(expected.size(), colliding.keySet().size());
+    }
+
+    @Test
+    public void testIncrementalResize() {
+        CustomHashMap<Integer, String> incremental = new CustomHashMap<>(16, true);
+        for (int i = 1; i <= 100_000; i++) {
+            assertNull(incremental.put(i, "value" + i));
+            assertEquals("value" + (i / 2 + 1), incremental.get(i / 2 + 1));
+        }
+
+        assertEquals(100_000, incremental.size());
+        for (int i = 1; i <= 100_000; i++) {
+            assertEquals("value" + i, incremental.get(i));
+        }
+        assertEquals(100_000, incremental.keySet().size());
+        assertEquals(100_000, incremental.values().size());
+        assertTrue(incremental.containsValue("value1"));
+    }
+
+    @Test
+    public void testIncrementalResizeAgainstHashMap() {
+        CustomHashMap<Collider, Integer> incremental = new CustomHashMap<>(0, true);
+        Map<Collider, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 100_000; i++) {
+            Collider key = new Collider(random.nextInt(5_000));
+            if (random.nextInt(3) > 0) {
+                assertEquals(expected.put(key, i), incremental.put(key, i));
+            } else {
+                assertEquals(expected.remove(key), incremental.remove(key));
+            }
+            if (i % 25_000 == 0) {
+                incremental.clear();
+                expected.clear();
+            }
+        }
+
+        assertEquals(expected.size(), incremental.size());
+        for (Map.Entry<Collider, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), incremental.get(entry.getKey()));
+        }
+        assertEquals(expected.entrySet(), incremental.entrySet());
+    }
+
+    @Test
+    public void testResizeDoesNotRecomputeHashCodes() {
+        CustomHashMap<CountingKey, Integer> counting = new CustomHashMap<>(0);
+        int[] hashCodeCalls = new int[1];
+        for (int i = 0; i < 10_000; i++) {
+            counting.put(new CountingKey(i, hashCodeCalls), i);
+        }
+        assertEquals(10_000, hashCodeCalls[0]);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, counting.get(new CountingKey(i, new int[1])));
+        }
+    }
+
+    @Test
+    public void testParallelResize() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CustomHashMap<Integer, String> parallel = new CustomHashMap<>(0, pool);
+            for (int i = 1; i <= 1_000_000; i++) {
+                parallel.put(i, "value" + i);
+            }
+            for (int i = 0; i < 1_000; i++) {
+                parallel.put(i << 20, "high" + i);
+            }
+
+            assertEquals(1_001_000, parallel.size());
+            for (int i = 1; i <= 1_000_000; i++) {
+                assertEquals("value" + i, parallel.get(i));
+            }
+            for (int i = 0; i < 1_000; i++) {
+                assertEquals("high" + i, parallel.get(i << 20));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPutAll() {
+        Map<Integer, String> anotherMap = new HashMap<>();
+        for (int i = 500_001; i <= 1_500_000; i++) {
+            anotherMap.put(i, "other" + i);
+        }
+
+        map.putAll(anotherMap);
+        assertEquals(1_500_000, map.size());
+        for (int i = 1; i <= 500_000; i++) {
+            assertEquals("value" + i, map.get(i));
+        }
+        for (int i = 500_001; i <= 1_500_000; i++) {
+            assertEquals("other" + i, map.get(i));
+        }
+    }
+
+    @Test
+    public void testEnsureCapacity() {
+        CustomHashMap<Integer, String> presized = new CustomHashMap<>();
+        presized.put(0, "value0");
+        presized.ensureCapacity(100_000);
+        presized.ensureCapacity(10);
+        for (int i = 1; i < 100_000; i++) {
+            presized.put(i, "value" + i);
+        }
+
+        assertEquals(100_000, presized.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals("value" + i, presized.get(i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> presized.ensureCapacity(-1));
+    }
+
+    @Test
+    public void testEnsureCapacityDuringIncrementalResize() {
+        CustomHashMap<Integer, Integer> incremental = new CustomHashMap<>(16, true);
+        for (int i = 0; i < 13; i++) {
+            incremental.put(i, i);
+        }
+        incremental.ensureCapacity(10_000);
+
+        assertEquals(13, incremental.size());
+        for (int i = 0; i < 13; i++) {
+            assertEquals(i, incremental.get(i));
+        }
+    }
+
+    @Test
+    public void testShrinkOnRemove() {
+        for (int i = 1; i <= 1_000_000; i++) {
+            if (i % 1_000 != 0) {
+                assertEquals("value" + i, map.remove(i));
+            }
+        }
+
+        assertEquals(1_000, map.size());
+        for (int i = 1_000; i <= 1_000_000; i += 1_000) {
+            assertEquals("value" + i, map.get(i));
+        }
+        assertNull(map.get(999));
+        assertEquals(1_000, map.keySet().size());
+
+        for (int i = 1; i <= 1_000_000; i++) {
+            map.put(i, "again" + i);
+        }
+        assertEquals("again123", map.get(123));
+        assertEquals(1_000_000, map.size());
+    }
+
+    @Test
+    public void testShrinkTreeifiedBinsAgainstHashMap() {
+        CustomHashMap<Collider, Integer> colliding = new CustomHashMap<>();
+        Map<Collider, Integer> expected = new HashMap<>();
+        Random random = new Random(23);
+
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 20_000; i++) {
+                Collider key = new Collider(random.nextInt(20_000));
+                assertEquals(expected.put(key, i), colliding.put(key, i));
+            }
+            for (int i = 0; i < 40_000; i++) {
+                Collider key = new Collider(random.nextInt(20_000));
+                assertEquals(expected.remove(key), colliding.remove(key));
+            }
+
+            assertEquals(expected.size(), colliding.size());
+            for (Map.Entry<Collider, Integer> entry : expected.entrySet()) {
+                assertEquals(entry.getValue(), colliding.get(entry.getKey()));
+            }
+        }
+    }
+
+    @Test
+    public void testTrimToSize() {
+        CustomHashMap<Integer, String> trimmed = new CustomHashMap<>(1 << 20);
+        for (int i = 0; i < 100; i++) {
+            trimmed.put(i, "value" + i);
+        }
+        trimmed.trimToSize();
+
+        assertEquals(100, trimmed.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("value" + i, trimmed.get(i));
+        }
+
+        trimmed.clear();
+        trimmed.trimToSize();
+        assertTrue(trimmed.isEmpty());
+        trimmed.put(1, "one");
+        assertEquals("one", trimmed.get(1));
+    }
+
+    @Test
+    public void testLoadFactor() {
+        for (float loadFactor : new float[]{0.25f, 1f, 4f}) {
+            CustomHashMap<Integer, String> custom = new CustomHashMap<>(0, loadFactor);
+            for (int i = 0; i < 100_000; i++) {
+                custom.put(i, "value" + i);
+            }
+            for (int i = 0; i < 100_000; i++) {
+                assertEquals("value" + i, custom.get(i));
+            }
+            assertEquals(100_000, custom.size());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new CustomHashMap<>(16, 0f));
+        assertThrows(IllegalArgumentException.class, () -> new CustomHashMap<>(16, Float.NaN));
+    }
+
+    @Test
+    public void testGrowthPoliciesAgainstHashMap() {
+        GrowthPolicy[] policies = {GrowthPolicy.doubling(), GrowthPolicy.oneAndAHalf(), GrowthPolicy.fixedStep(100)};
+
+        for (GrowthPolicy policy : policies) {
+            CustomHashMap<Integer, Integer> custom = new CustomHashMap<>(1, 0.75f, policy);
+            Map<Integer, Integer> expected = new HashMap<>();
+            Random random = new Random(5);
+
+            for (int round = 0; round < 3; round++) {
+                for (int i = 0; i < 30_000; i++) {
+                    int key = random.nextInt(30_000) << random.nextInt(3);
+                    assertEquals(expected.put(key, i), custom.put(key, i));
+                }
+                custom.ensureCapacity(expected.size() * 2);
+                for (int i = 0; i < 60_000; i++) {
+                    int key = random.nextInt(30_000) << random.nextInt(3);
+                    assertEquals(expected.remove(key), custom.remove(key));
+                }
+
+                assertEquals(expected.size(), custom.size());
+                for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+                    assertEquals(entry.getValue(), custom.get(entry.getKey()));
+                }
+            }
+            custom.trimToSize();
+            assertEquals(expected.entrySet(), custom.entrySet());
+        }
+    }
+
+    @Test
+    public void testBuilder() {
+        CustomHashMap<Integer, String> built = CustomHashMap.<Integer, String>builder()
+                .initialCapacity(3)
+                .loadFactor(0.5f)
+                .growthPolicy(GrowthPolicy.oneAndAHalf())
+                .incrementalResize(true)
+                .build();
+        for (int i = 0; i < 100_000; i++) {
+            built.put(i, "value" + i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals("value" + i, built.get(i));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> CustomHashMap.builder().initialCapacity(-1).build());
+        assertThrows(NullPointerException.class, () -> CustomHashMap.builder().growthPolicy(null).build());
+        assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.fixedStep(0));
+    }
+
+    @Test
+    public void testGrowthPolicyMustGrow() {
+        CustomHashMap<Integer, Integer> stuck = new CustomHashMap<>(1, 0.75f, capacity -> capacity);
+        stuck.put(1, 1);
+        assertThrows(IllegalStateException.class, () -> stuck.put(2, 2));
+    }
+
+    @Test
+    public void testLiveViews() {
+        Set<Integer> keys = map.keySet();
+        Collection<String> values = map.values();
+        Set<Map.Entry<Integer, String>> entries = map.entrySet();
+
+        map.put(0, "value0");
+        assertTrue(keys.contains(0));
+        assertTrue(values.contains("value0"));
+        assertTrue(entries.contains(Map.entry(0, "value0")));
+        assertFalse(entries.contains(Map.entry(0, "other")));
+        assertEquals(1_000_001, keys.size());
+
+        assertTrue(keys.remove(0));
+        assertFalse(keys.remove(0));
+        assertTrue(entries.remove(Map.entry(1, "value1")));
+        assertFalse(entries.remove(Map.entry(2, "other")));
+        assertFalse(map.containsKey(1));
+        assertEquals(999_999, map.size());
+        assertEquals(999_999, values.size());
+        assertSame(keys, map.keySet());
+    }
+
+    @Test
+    public void testEntrySetAgainstHashMap() {
+        CustomHashMap<Integer, String> small = new CustomHashMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            small.put(i, "value" + i);
+            expected.put(i, "value" + i);
+        }
+
+        assertEquals(expected.entrySet(), small.entrySet());
+        assertEquals(small.entrySet(), expected.entrySet());
+        assertEquals(expected.entrySet().hashCode(), small.entrySet().hashCode());
+        assertEquals(expected.keySet(), small.keySet());
+
+        for (Map.Entry<Integer, String> entry : small.entrySet()) {
+            entry.setValue("new" + entry.getKey());
+        }
+        assertEquals("new10", small.get(10));
+
+        small.values().clear();
+        assertTrue(small.isEmpty());
+        assertFalse(small.keySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        Iterator<Map.Entry<Integer, String>> iterator = map.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, String> entry = iterator.next();
+            if (entry.getKey() % 3 == 0) {
+                iterator.remove();
+            }
+            count++;
+        }
+
+        assertEquals(1_000_000, count);
+        assertEquals(1_000_000 - 333_333, map.size());
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertEquals(i % 3 != 0, map.containsKey(i));
+        }
+        assertThrows(NoSuchElementException.class, iterator::next);
+
+        Iterator<Integer> keys = map.keySet().iterator();
+        assertThrows(IllegalStateException.class, keys::remove);
+        keys.next();
+        keys.remove();
+        assertThrows(IllegalStateException.class, keys::remove);
+        assertEquals(1_000_000 - 333_334, map.size());
+    }
+
+    @Test
+    public void testFailFastIterator() {
+        Iterator<Map.Entry<Integer, String>> iterator = map.iterator();
+        iterator.next();
+        map.put(1, "replaced");
+        iterator.next();
+        map.put(0, "value0");
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+
+        Iterator<Integer> keys = map.keySet().iterator();
+        keys.next();
+        map.remove(5);
+        assertThrows(ConcurrentModificationException.class, keys::next);
+
+        Iterator<String> values = map.values().iterator();
+        values.next();
+        map.clear();
+        assertThrows(ConcurrentModificationException.class, values::next);
+    }
+
+    @Test
+    public void testIteratorRemoveFromTreeifiedBins() {
+        CustomHashMap<ComparableCollider, Integer> colliding = new CustomHashMap<>(64);
+        for (int i = 0; i < 1_000; i++) {
+            colliding.put(new ComparableCollider(i), i);
+        }
+
+        Set<ComparableCollider> seen = new HashSet<>();
+        Iterator<ComparableCollider> keys = colliding.keySet().iterator();
+        while (keys.hasNext()) {
+            ComparableCollider key = keys.next();
+            assertTrue(seen.add(key));
+            if (key.id() % 10 != 0) {
+                keys.remove();
+            }
+        }
+
+        assertEquals(1_000, seen.size());
+        assertEquals(100, colliding.size());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i % 10 == 0 ? i : null, colliding.get(new ComparableCollider(i)));
+        }
+        colliding.put(new ComparableCollider(1), 1);
+        assertEquals(1, colliding.remove(new ComparableCollider(1)));
+        assertEquals(0, colliding.remove(new ComparableCollider(0)));
+        assertEquals(99, colliding.size());
+    }
+
+    @Test
+    public void testIteratorRemoveDuringIncrementalResize() {
+        CustomHashMap<Integer, Integer> incremental = new CustomHashMap<>(16, true);
+        for (int i = 0; i < 100_000; i++) {
+            incremental.put(i, i);
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        Iterator<Map.Entry<Integer, Integer>> iterator = incremental.iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Integer> entry = iterator.next();
+            assertTrue(seen.add(entry.getKey()));
+            if (entry.getKey() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(100_000, seen.size());
+        assertEquals(50_000, incremental.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i % 2 == 1, incremental.containsKey(i));
+        }
+    }
+
+    @Test
+    public void testSpliterator() {
+        Spliterator<Map.Entry<Integer, String>> spliterator = map.spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.DISTINCT));
+        assertEquals(1_000_000, spliterator.estimateSize());
+
+        Spliterator<Map.Entry<Integer, String>> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertFalse(prefix.hasCharacteristics(Spliterator.SIZED));
+        assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+
+        Set<Integer> seen = new HashSet<>();
+        prefix.forEachRemaining(entry -> assertTrue(seen.add(entry.getKey())));
+        while (spliterator.tryAdvance(entry -> assertTrue(seen.add(entry.getKey())))) {
+        }
+        assertEquals(1_000_000, seen.size());
+    }
+
+    @Test
+    public void testParallelStreams() {
+        assertEquals(500_000_500_000L, map.keySet().parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(1_000_000, map.values().parallelStream().distinct().count());
+        assertEquals(new HashMap<>(map), map.entrySet().parallelStream()
+                .collect(HashMap::new, (m, e) -> m.put(e.getKey(), e.getValue()), HashMap::putAll));
+    }
+
+    @Test
+    public void testSpliteratorDuringIncrementalResize() {
+        CustomHashMap<Integer, Integer> incremental = new CustomHashMap<>(16, true);
+        for (int i = 0; i < 100_000; i++) {
+            incremental.put(i, i);
+        }
+
+        assertEquals(100_000, incremental.keySet().parallelStream().distinct().count());
+        assertEquals(4_999_950_000L, incremental.values().parallelStream().mapToLong(Integer::longValue).sum());
+    }
+
+    @Test
+    public void testFailFastSpliterator() {
+        Spliterator<Integer> keys = map.keySet().spliterator();
+        map.put(0, "value0");
+        keys.tryAdvance(key -> { });
+        map.put(-1, "value-1");
+        assertThrows(ConcurrentModificationException.class, () -> keys.tryAdvance(key -> { }));
+        assertThrows(ConcurrentModificationException.class,
+                () -> map.keySet().stream().forEach(key -> map.remove(1)));
+    }
+
+    @Test
+    public void testForEach() {
+        long[] keySum = new long[1];
+        map.forEach((key, value) -> {
+            assertEquals("value" + key, value);
+            keySum[0] += key;
+        });
+        assertEquals(500_000_500_000L, keySum[0]);
+
+        List<Integer> keys = new ArrayList<>();
+        map.forEachKey(keys::add);
+        assertEquals(new ArrayList<>(map.keySet()), keys);
+
+        Set<String> values = new HashSet<>();
+        map.values().forEach(values::add);
+        assertEquals(1_000_000, values.size());
+        assertTrue(values.contains("value1"));
+
+        assertThrows(ConcurrentModificationException.class, () -> map.forEachKey(key -> map.remove(key)));
+    }
+
+    @Test
+    public void testReplaceAll() {
+        map.replaceAll((key, value) -> key % 2 == 0 ? value.toUpperCase() : null);
+
+        assertEquals(1_000_000, map.size());
+        assertEquals("VALUE2", map.get(2));
+        assertNull(map.get(3));
+        assertTrue(map.containsKey(3));
+    }
+
+    @Test
+    public void testParallelForEach() {
+        LongAdder keySum = new LongAdder();
+        map.forEach(1, (key, value) -> keySum.add(key));
+        assertEquals(500_000_500_000L, keySum.sum());
+
+        LongAdder valueCount = new LongAdder();
+        map.forEachValue(1, value -> valueCount.increment());
+        assertEquals(1_000_000, valueCount.sum());
+
+        Set<Integer> keys = ConcurrentHashMap.newKeySet();
+        map.forEachKey(Long.MAX_VALUE, keys::add);
+        assertEquals(1_000_000, keys.size());
+
+        map.replaceAll(1, (key, value) -> "new" + key);
+        assertEquals("new1", map.get(1));
+        assertEquals("new1000000", map.get(1_000_000));
+    }
+
+    @Test
+    public void testParallelForEachDuringIncrementalResize() {
+        CustomHashMap<Integer, Integer> incremental = new CustomHashMap<>(16, true);
+        for (int i = 0; i < 100_000; i++) {
+            incremental.put(i, i);
+        }
+
+        Set<Integer> keys = ConcurrentHashMap.newKeySet();
+        incremental.forEachKey(1, key -> assertTrue(keys.add(key)));
+        assertEquals(100_000, keys.size());
+
+        List<Integer> sequential = new ArrayList<>();
+        incremental.forEachValue(sequential::add);
+        assertEquals(100_000, new HashSet<>(sequential).size());
+    }
+
+    @Test
+    public void testComputeMethods() {
+        assertEquals("value1", map.computeIfAbsent(1, key -> "new" + key));
+        assertEquals("new0", map.computeIfAbsent(0, key -> "new" + key));
+        assertNull(map.computeIfAbsent(-1, key -> null));
+        assertFalse(map.containsKey(-1));
+
+        assertEquals("value2!", map.computeIfPresent(2, (key, value) -> value + "!"));
+        assertNull(map.computeIfPresent(-2, (key, value) -> value + "!"));
+        assertNull(map.computeIfPresent(3, (key, value) -> null));
+        assertFalse(map.containsKey(3));
+
+        assertEquals("value4?", map.compute(4, (key, value) -> value + "?"));
+        assertEquals("null?", map.compute(-4, (key, value) -> value + "?"));
+        assertNull(map.compute(5, (key, value) -> null));
+        assertFalse(map.containsKey(5));
+
+        assertEquals("value6value6", map.merge(6, "value6", String::concat));
+        assertEquals("seven", map.merge(-7, "seven", String::concat));
+        assertNull(map.merge(7, "value7", (oldValue, value) -> null));
+        assertFalse(map.containsKey(7));
+
+        assertEquals(1_000_000, map.size());
+        assertThrows(ConcurrentModificationException.class, () -> map.computeIfAbsent(-8, key -> map.put(-9, "nine")));
+        assertThrows(NullPointerException.class, () -> map.merge(8, null, String::concat));
+    }
+
+    @Test
+    public void testPutIfAbsentAndReplace() {
+        assertEquals("value1", map.putIfAbsent(1, "new"));
+        assertNull(map.putIfAbsent(0, "zero"));
+        assertEquals("zero", map.getOrDefault(0, "default"));
+        assertEquals("default", map.getOrDefault(-1, "default"));
+
+        map.put(-2, null);
+        assertNull(map.getOrDefault(-2, "default"));
+        assertNull(map.putIfAbsent(-2, "two"));
+        assertEquals("two", map.get(-2));
+
+        assertEquals("value3", map.replace(3, "three"));
+        assertNull(map.replace(-3, "three"));
+        assertFalse(map.containsKey(-3));
+        assertTrue(map.replace(4, "value4", "four"));
+        assertFalse(map.replace(4, "value4", "four!"));
+        assertEquals("four", map.get(4));
+    }
+
+    @Test
+    public void testComputeMethodsAgainstHashMap() {
+        CustomHashMap<Collider, Integer> colliding = new CustomHashMap<>();
+        Map<Collider, Integer> expected = new HashMap<>();
+        Random random = new Random(19);
+
+        for (int i = 0; i < 100_000; i++) {
+            Collider key = new Collider(random.nextInt(500));
+            int value = random.nextInt(10);
+            switch (random.nextInt(6)) {
+                case 0 -> assertEquals(expected.merge(key, value, (a, b) -> a + b > 12 ? null : Integer.valueOf(a + b)),
+                        colliding.merge(key, value, (a, b) -> a + b > 12 ? null : Integer.valueOf(a + b)));
+                case 1 -> assertEquals(expected.compute(key, (k, v) -> v == null ? Integer.valueOf(value) : v % 3 == 0 ? null : Integer.valueOf(v + 1)),
+                        colliding.compute(key, (k, v) -> v == null ? Integer.valueOf(value) : v % 3 == 0 ? null : Integer.valueOf(v + 1)));
+                case 2 -> assertEquals(expected.computeIfAbsent(key, k -> value == 0 ? null : Integer.valueOf(value)),
+                        colliding.computeIfAbsent(key, k -> value == 0 ? null : Integer.valueOf(value)));
+                case 3 -> assertEquals(expected.computeIfPresent(key, (k, v) -> v > 5 ? null : Integer.valueOf(v + value)),
+                        colliding.computeIfPresent(key, (k, v) -> v > 5 ? null : Integer.valueOf(v + value)));
+                case 4 -> assertEquals(expected.putIfAbsent(key, value), colliding.putIfAbsent(key, value));
+                default -> assertEquals(expected.remove(key), colliding.remove(key));
+            }
+        }
+
+        assertEquals(expected.size(), colliding.size());
+        for (Map.Entry<Collider, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), colliding.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void testComputeMethodsHashKeysOnce() {
+        int[] hashCodeCalls = new int[1];
+        CustomHashMap<CountingKey, Integer> counting = new CustomHashMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            counting.merge(new CountingKey(i % 100, hashCodeCalls), 1, Integer::sum);
+            counting.computeIfAbsent(new CountingKey(i, hashCodeCalls), key -> key.id());
+            counting.compute(new CountingKey(i, hashCodeCalls), (key, value) -> value + 1);
+        }
+
+        assertEquals(3_000, hashCodeCalls[0]);
+        assertEquals(1_000, counting.size());
+        assertEquals(10 + 1, counting.get(new CountingKey(0, new int[1])));
+        assertEquals(999 + 1, counting.get(new CountingKey(999, new int[1])));
+    }
+
+    @Test
+    public void testGetAll() {
+        Random random = new Random(20);
+        Integer[] keys = new Integer[1_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(2_000_000);
+        }
+        String[] values = new String[keys.length];
+
+        int found = map.getAll(keys, values);
+
+        int expectedFound = 0;
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(map.get(keys[i]), values[i]);
+            if (values[i] != null) {
+                expectedFound++;
+            }
+        }
+        assertEquals(expectedFound, found);
+        assertEquals(0, map.getAll(new Integer[0], new String[0]));
+        assertThrows(IllegalArgumentException.class, () -> map.getAll(keys, new String[10]));
+    }
+
+    @Test
+    public void testContainsAllKeys() {
+        assertTrue(map.containsAllKeys(new Integer[]{1, 2, 3}));
+        assertTrue(map.containsAllKeys(new Integer[0]));
+
+        Integer[] keys = new Integer[100];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 10_000 + 1;
+        }
+        assertTrue(map.containsAllKeys(keys));
+        keys[57] = 0;
+        assertFalse(map.containsAllKeys(keys));
+    }
+
+    @Test
+    public void testGetAllFromTreeifiedBinsAndDuringIncrementalResize() {
+        CustomHashMap<Collider, Integer> colliding = new CustomHashMap<>();
+        for (int i = 0; i < 10_000; i += 2) {
+            colliding.put(new Collider(i), i);
+        }
+
+        Collider[] keys = new Collider[101];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new Collider(i * 37);
+        }
+        Integer[] values = new Integer[keys.length];
+
+        assertEquals(51, colliding.getAll(keys, values));
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i % 2 == 0 ? i * 37 : null, values[i]);
+        }
+
+        // The 3073rd put doubles the table to 8192 bins and starts moving the 4096 old ones.
+        CustomHashMap<Integer, Integer> incremental = new CustomHashMap<>(16, true);
+        for (int i = 0; i < 3_073; i++) {
+            incremental.put(i, i);
+        }
+        Integer[] integerKeys = new Integer[4_000];
+        for (int i = 0; i < integerKeys.length; i++) {
+            integerKeys[i] = i;
+        }
+
+        assertEquals(3_073, incremental.getAll(integerKeys, new Integer[integerKeys.length]));
+        assertFalse(incremental.containsAllKeys(integerKeys));
+        assertTrue(incremental.containsAllKeys(Arrays.copyOf(integerKeys, 3_073)));
+    }
+
+    @Test
+    public void testContainsNullValueWithAndWithoutValueIndex() {
+        CustomHashMap<Integer, String> indexed = CustomHashMap.<Integer, String>builder().valueIndex(true).build();
+        for (CustomHashMap<Integer, String> m : List.of(map, indexed)) {
+            m.put(1, "value1");
+            assertFalse(m.containsValue(null));
+            assertFalse(m.values().contains(null));
+
+            m.put(0, null);
+            assertTrue(m.containsValue(null));
+            assertTrue(m.values().contains(null));
+            assertTrue(m.containsValue("value1"));
+            assertFalse(m.containsValue("value0"));
+            assertEquals(Set.of(0), m.keysForValue(null));
+
+            m.remove(0);
+            assertFalse(m.containsValue(null));
+        }
+    }
+
+    @Test
+    public void testValueIndex() {
+        CustomHashMap<Integer, String> indexed = CustomHashMap.<Integer, String>builder().valueIndex(true).build();
+        for (int i = 0; i < 1_000; i++) {
+            indexed.put(i, "value" + i % 10);
+        }
+
+        assertTrue(indexed.containsValue("value3"));
+        assertFalse(indexed.containsValue("value10"));
+        assertEquals(100, indexed.keysForValue("value3").size());
+        assertTrue(indexed.keysForValue("value3").contains(993));
+        assertTrue(indexed.keysForValue("value10").isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> indexed.keysForValue("value3").clear());
+
+        indexed.put(3, "three");
+        indexed.remove(13);
+        indexed.replace(23, "three");
+        indexed.merge(33, "!", String::concat);
+        indexed.compute(43, (key, value) -> null);
+        assertEquals(Set.of(3, 23), indexed.keysForValue("three"));
+        assertEquals(Set.of(33), indexed.keysForValue("value3!"));
+        assertEquals(95, indexed.keysForValue("value3").size());
+
+        for (Map.Entry<Integer, String> entry : indexed.entrySet()) {
+            if (entry.getKey() % 10 == 5) {
+                entry.setValue("five");
+            }
+        }
+        assertFalse(indexed.containsValue("value5"));
+        assertEquals(100, indexed.keysForValue("five").size());
+
+        indexed.replaceAll(1, (key, value) -> value.toUpperCase());
+        assertEquals(100, indexed.keysForValue("FIVE").size());
+        assertFalse(indexed.containsValue("five"));
+
+        indexed.clear();
+        assertFalse(indexed.containsValue("FIVE"));
+    }
+
+    @Test
+    public void testValueIndexAgainstScan() {
+        CustomHashMap<Collider, Integer> indexed = CustomHashMap.<Collider, Integer>builder()
+                .valueIndex(true)
+                .incrementalResize(true)
+                .build();
+        CustomHashMap<Collider, Integer> scanned = new CustomHashMap<>();
+        Random random = new Random(21);
+
+        for (int i = 0; i < 50_000; i++) {
+            Collider key = new Collider(random.nextInt(1_000));
+            int value = random.nextInt(50);
+            switch (random.nextInt(4)) {
+                case 0, 1 -> assertEquals(scanned.put(key, value), indexed.put(key, value));
+                case 2 -> assertEquals(scanned.remove(key), indexed.remove(key));
+                default -> assertEquals(scanned.merge(key, value, Integer::sum), indexed.merge(key, value, Integer::sum));
+            }
+        }
+
+        for (int value = 0; value < 200; value++) {
+            assertEquals(scanned.containsValue(value), indexed.containsValue(value));
+            assertEquals(scanned.keysForValue(value), indexed.keysForValue(value));
+        }
+    }
+
+    @Test
+    public void testBloomFilter() {
+        CustomHashMap<Integer, Integer> filtered = CustomHashMap.<Integer, Integer>builder().bloomFilter(true).build();
+        for (int i = 0; i < 100_000; i++) {
+            filtered.put(i * 2, i);
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i, filtered.get(i * 2));
+            assertFalse(filtered.containsKey(i * 2 + 1));
+        }
+
+        CustomHashMap.BloomFilterStats stats = filtered.bloomFilterStats();
+        assertEquals(100_000, stats.rejections() + stats.falsePositives());
+        assertTrue(stats.falsePositiveRate() < 0.05, "false-positive rate " + stats.falsePositiveRate());
+        assertTrue(stats.bits() >= 100_000 * 10);
+
+        for (int i = 0; i < 100_000; i += 2) {
+            filtered.remove(i * 2);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i % 2 == 0 ? null : i, filtered.get(i * 2));
+        }
+
+        filtered.clear();
+        assertNull(filtered.get(2));
+        assertThrows(IllegalStateException.class, () -> map.bloomFilterStats());
+    }
+
+    @Test
+    public void testBloomFilterDuringIncrementalResize() {
+        CustomHashMap<Integer, Integer> filtered = CustomHashMap.<Integer, Integer>builder()
+                .bloomFilter(true)
+                .incrementalResize(true)
+                .initialCapacity(0)
+                .build();
+        Random random = new Random(22);
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(50_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), filtered.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), filtered.put(key, i));
+            }
+            int probe = random.nextInt(100_000);
+            assertEquals(expected.get(probe), filtered.get(probe));
+        }
+
+        Integer[] keys = new Integer[100_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i;
+        }
+        Integer[] values = new Integer[keys.length];
+        assertEquals(expected.size(), filtered.getAll(keys, values));
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(expected.get(i), values[i]);
+        }
+    }
+
+    @Test
+    public void testBloomFilterFalsePositiveRateMatchesTheory() {
+        CustomHashMap<Integer, Integer> filtered = CustomHashMap.<Integer, Integer>builder().bloomFilter(true).build();
+        // Fills the table of 262_144 bins up to its threshold, so the filter holds exactly these hashes.
+        int n = 196_608;
+        for (int i = 0; i < n; i++) {
+            filtered.put(i * 2, i);
+        }
+        for (int i = 0; i < 1_000_000; i++) {
+            assertFalse(filtered.containsKey(i * 2 + 1));
+        }
+
+        CustomHashMap.BloomFilterStats stats = filtered.bloomFilterStats();
+        // A plain Bloom filter with 4 bits per hash; packing them into 512-bit blocks costs a little more.
+        double theoretical = Math.pow(1 - Math.exp(-4.0 * n / stats.bits()), 4);
+        assertTrue(stats.falsePositiveRate() < theoretical * 1.3,
+                "false-positive rate " + stats.falsePositiveRate() + ", theoretical " + theoretical);
+    }
+
+    @Test
+    public void testBloomFilterStaysSelectiveUnderChurn() {
+        CustomHashMap<Integer, Integer> filtered = CustomHashMap.<Integer, Integer>builder().bloomFilter(true).build();
+        for (int i = 0; i < 40_000; i++) {
+            filtered.put(i, i);
+        }
+        // The size stays at 40_000, so the table never resizes while the keys are replaced 50 times over.
+        for (int i = 40_000; i < 2_040_000; i++) {
+            filtered.remove(i - 40_000);
+            filtered.put(i, i);
+        }
+
+        CustomHashMap.BloomFilterStats before = filtered.bloomFilterStats();
+        for (int i = 0; i < 100_000; i++) {
+            assertFalse(filtered.containsKey(-1 - i));
+        }
+        CustomHashMap.BloomFilterStats after = filtered.bloomFilterStats();
+        long falsePositives = after.falsePositives() - before.falsePositives();
+        assertEquals(100_000, after.rejections() - before.rejections() + falsePositives);
+        assertTrue(falsePositives < 5_000, "false positives " + falsePositives);
+        assertTrue(after.falsePositiveRate() < 0.05, "false-positive rate " + after.falsePositiveRate());
+    }
+
+    @Test
+    public void testBloomFilterCountsBatchLookups() {
+        CustomHashMap<Integer, Integer> filtered = CustomHashMap.<Integer, Integer>builder().bloomFilter(true).build();
+        Integer[] keys = new Integer[100_000];
+        for (int i = 0; i < keys.length; i++) {
+            filtered.put(i * 2, i);
+            keys[i] = i * 2 + (i % 2);
+        }
+
+        Integer[] values = new Integer[keys.length];
+        assertEquals(50_000, filtered.getAll(keys, values));
+        CustomHashMap.BloomFilterStats stats = filtered.bloomFilterStats();
+        assertEquals(50_000, stats.rejections() + stats.falsePositives());
+
+        assertFalse(filtered.containsAllKeys(new Integer[]{0, 2, 3}));
+        assertEquals(50_001, filtered.bloomFilterStats().rejections() + filtered.bloomFilterStats().falsePositives());
+    }
+
+    @Test
+    public void testBloomFilterRejectsDuringIncrementalResize() {
+        CustomHashMap<Integer, Integer> filtered = CustomHashMap.<Integer, Integer>builder()
+                .bloomFilter(true)
+                .incrementalResize(true)
+                .build();
+        // The 13th insert starts moving the 16 bins, four of them per later insert.
+        for (int i = 0; i < 13; i++) {
+            filtered.put(i, i);
+        }
+
+        for (int i = 0; i < 13; i++) {
+            assertEquals(i, filtered.get(i));
+        }
+        for (int i = 13; i < 10_013; i++) {
+            assertNull(filtered.get(i));
+        }
+        assertTrue(filtered.bloomFilterStats().falsePositiveRate() < 0.05);
+
+        for (int i = 13; i < 20; i++) {
+            filtered.put(i, i);
+        }
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, filtered.get(i));
+        }
+    }
+
+    record Collider(int id) {
+        @Override
+        public int hashCode() {
+            return id % 7;
+        }
+    }
+
+    record ComparableCollider(int id) implements Comparable<ComparableCollider> {
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+
+        @Override
+        public int compareTo(ComparableCollider other) {
+            return Integer.compare(id, other.id);
+        }
+    }
+
+    record CountingKey(int id, int[] hashCodeCalls) {
+        @Override
+        public int hashCode() {
+            hashCodeCalls[0]++;
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CountingKey other && id == other.id;
+        }
+    }
+}
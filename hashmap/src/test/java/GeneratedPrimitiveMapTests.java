@@ -0,0 +1,10 @@
+import org.tatiSmol.generator.GeneratePrimitiveMapTests;
+
+import static org.tatiSmol.generator.PrimitiveType.*;
+
+/**
+ * Requests a generated test class, for example IntLongMapGeneratedTest, for every generated primitive map.
+ */
+@GeneratePrimitiveMapTests(keys = {INT, LONG}, values = {INT, LONG, DOUBLE})
+class GeneratedPrimitiveMapTests {
+}
@@ -0,0 +1,179 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.tatiSmol.IntObjectMap;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntObjectMapTest {
+    IntObjectMap<String> map;
+
+    @BeforeEach
+    public void setup() {
+        map = new IntObjectMap<>();
+        for (int i = 1; i <= 1_000_000; i++) {
+            map.put(i, "value" + i);
+        }
+    }
+
+    @Test
+    public void testGet() {
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertEquals("value" + i, map.get(i));
+        }
+        assertNull(map.get(0));
+        assertNull(map.get(-1));
+        assertEquals("default", map.getOrDefault(-1, "default"));
+        assertEquals(1_000_000, map.size());
+    }
+
+    @Test
+    public void testPutReplacesValue() {
+        assertEquals("value7", map.put(7, "seven"));
+        assertEquals("seven", map.get(7));
+        assertEquals(1_000_000, map.size());
+    }
+
+    @Test
+    public void testZeroKey() {
+        assertFalse(map.containsKey(0));
+        assertNull(map.put(0, "zero"));
+        assertTrue(map.containsKey(0));
+        assertEquals("zero", map.get(0));
+        assertEquals(1_000_001, map.size());
+        assertTrue(map.containsValue("zero"));
+
+        assertEquals("zero", map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertNull(map.remove(0));
+        assertEquals(1_000_000, map.size());
+    }
+
+    @Test
+    public void testRemove() {
+        for (int i = 1; i <= 1_000_000; i += 2) {
+            assertEquals("value" + i, map.remove(i));
+        }
+
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertEquals(i % 2 == 1 ? null : "value" + i, map.get(i));
+        }
+        assertEquals(500_000, map.size());
+    }
+
+    @Test
+    public void testShrinkOnRemove() {
+        for (int i = 1; i <= 999_990; i++) {
+            map.remove(i);
+        }
+
+        assertEquals(10, map.size());
+        for (int i = 999_991; i <= 1_000_000; i++) {
+            assertEquals("value" + i, map.get(i));
+        }
+        map.trimToSize();
+        assertEquals("value1000000", map.get(1_000_000));
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        IntObjectMap<Integer> small = new IntObjectMap<>(0);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(23);
+
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), small.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), small.put(key, i));
+            }
+            assertEquals(expected.size(), small.size());
+        }
+
+        for (int key = -1_000; key < 1_000; key++) {
+            assertEquals(expected.get(key), small.get(key));
+        }
+    }
+
+    @Test
+    public void testForEach() {
+        map.put(0, "value0");
+        long[] keySum = new long[1];
+        map.forEach((key, value) -> {
+            assertEquals("value" + key, value);
+            keySum[0] += key;
+        });
+        assertEquals(500_000_500_000L, keySum[0]);
+        assertThrows(ConcurrentModificationException.class, () -> map.forEach((key, value) -> map.remove(key)));
+    }
+
+    @Test
+    public void testCursor() {
+        map.put(0, "value0");
+        IntObjectMap<String>.Cursor cursor = map.cursor();
+        assertThrows(IllegalStateException.class, cursor::key);
+
+        int count = 0;
+        while (cursor.advance()) {
+            assertEquals("value" + cursor.key(), cursor.value());
+            if (cursor.key() % 3 == 0) {
+                cursor.remove();
+            } else {
+                cursor.setValue("new" + cursor.key());
+            }
+            count++;
+        }
+
+        assertEquals(1_000_001, count);
+        assertEquals(1_000_000 - 333_333, map.size());
+        for (int i = 0; i <= 1_000_000; i++) {
+            assertEquals(i % 3 == 0 ? null : "new" + i, map.get(i));
+        }
+    }
+
+    @Test
+    public void testCursorRemoveWrappedRuns() {
+        IntObjectMap<Integer> small = new IntObjectMap<>(16);
+        Random random = new Random(42);
+
+        for (int round = 0; round < 1_000; round++) {
+            small.clear();
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < 11; i++) {
+                int key = random.nextInt(1_000);
+                small.put(key, key);
+                expected.add(key);
+            }
+
+            Set<Integer> seen = new HashSet<>();
+            IntObjectMap<Integer>.Cursor cursor = small.cursor();
+            while (cursor.advance()) {
+                assertTrue(seen.add(cursor.key()));
+                assertEquals(cursor.key(), cursor.value());
+                cursor.remove();
+            }
+
+            assertEquals(expected, seen);
+            assertTrue(small.isEmpty());
+        }
+    }
+
+    @Test
+    public void testFailFastCursor() {
+        IntObjectMap<String>.Cursor cursor = map.cursor();
+        cursor.advance();
+        map.put(1, "replaced");
+        cursor.advance();
+        map.put(0, "value0");
+        assertThrows(ConcurrentModificationException.class, cursor::advance);
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new IntObjectMap<>(-1));
+        assertThrows(IllegalArgumentException.class, () -> new IntObjectMap<>(16, 1f));
+        assertThrows(IllegalArgumentException.class, () -> new IntObjectMap<>(16, 0f));
+    }
+}
@@ -0,0 +1,243 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.tatiSmol.LinkedCustomHashMap;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinkedCustomHashMapTest {
+    LinkedCustomHashMap<Integer, String> map;
+
+    @BeforeEach
+    public void setup() {
+        map = new LinkedCustomHashMap<>();
+        for (int i = 1_000_000; i >= 1; i--) {
+            map.put(i, "value" + i);
+        }
+    }
+
+    @Test
+    public void testInsertionOrder() {
+        int expected = 1_000_000;
+        for (Map.Entry<Integer, String> entry : map) {
+            assertEquals(expected, entry.getKey());
+            assertEquals("value" + expected, entry.getValue());
+            expected--;
+        }
+        assertEquals(0, expected);
+    }
+
+    @Test
+    public void testPutExistingKeepsInsertionOrder() {
+        map.put(1_000_000, "first");
+        map.get(1_000_000);
+
+        Iterator<Integer> keys = map.keySet().iterator();
+        assertEquals(1_000_000, keys.next());
+        assertEquals(999_999, keys.next());
+        assertEquals("first", map.values().iterator().next());
+    }
+
+    @Test
+    public void testRemoveKeepsOrder() {
+        for (int i = 1; i <= 1_000_000; i += 2) {
+            assertEquals("value" + i, map.remove(i));
+        }
+
+        int expected = 1_000_000;
+        for (Integer key : map.keySet()) {
+            assertEquals(expected, key);
+            expected -= 2;
+        }
+        assertEquals(0, expected);
+        assertEquals(500_000, map.size());
+    }
+
+    @Test
+    public void testContainsValue() {
+        for (int i = 1; i <= 1_000_000; i += 20_000) {
+            assertTrue(map.containsValue("value" + i));
+        }
+        assertFalse(map.containsValue("value0"));
+
+        assertFalse(map.containsValue(null));
+        map.put(0, null);
+        assertTrue(map.containsValue(null));
+        assertFalse(map.containsValue("value0"));
+    }
+
+    @Test
+    public void testClear() {
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertTrue(map.keySet().isEmpty());
+
+        map.put(2, "two");
+        map.put(1, "one");
+        assertEquals(List.of(2, 1), new ArrayList<>(map.keySet()));
+    }
+
+    @Test
+    public void testAccessOrder() {
+        LinkedCustomHashMap<Integer, String> accessOrdered = new LinkedCustomHashMap<>(16, 0.75f, true);
+        for (int i = 0; i < 5; i++) {
+            accessOrdered.put(i, "value" + i);
+        }
+
+        accessOrdered.get(1);
+        accessOrdered.put(3, "three");
+        accessOrdered.containsKey(0);
+
+        assertEquals(List.of(0, 2, 4, 1, 3), new ArrayList<>(accessOrdered.keySet()));
+        assertEquals("three", accessOrdered.get(3));
+    }
+
+    @Test
+    public void testRemoveEldestEntry() {
+        LinkedCustomHashMap<Integer, Integer> lru = new LinkedCustomHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                return size() > 100;
+            }
+        };
+
+        for (int i = 0; i < 1_000; i++) {
+            lru.put(i, i);
+            lru.get(0);
+        }
+
+        assertEquals(100, lru.size());
+        assertEquals(0, lru.get(0));
+        assertNull(lru.get(1));
+        assertEquals(List.of(0), new ArrayList<>(lru.keySet()).subList(99, 100));
+        assertEquals(901, new ArrayList<>(lru.keySet()).get(0));
+    }
+
+    @Test
+    public void testTreeifiedBinsAgainstLinkedHashMap() {
+        LinkedCustomHashMap<Collider, Integer> colliding = new LinkedCustomHashMap<>(16, 0.75f, true);
+        Map<Collider, Integer> expected = new LinkedHashMap<>(16, 0.75f, true);
+        Random random = new Random(13);
+
+        for (int i = 0; i < 100_000; i++) {
+            Collider key = new Collider(random.nextInt(2_000));
+            int operation = random.nextInt(4);
+            if (operation < 2) {
+                assertEquals(expected.put(key, i), colliding.put(key, i));
+            } else if (operation == 2) {
+                assertEquals(expected.get(key), colliding.get(key));
+            } else {
+                assertEquals(expected.remove(key), colliding.remove(key));
+            }
+        }
+
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(colliding.keySet()));
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(colliding.values()));
+    }
+
+    @Test
+    public void testLiveViewsKeepOrder() {
+        LinkedCustomHashMap<Integer, String> small = new LinkedCustomHashMap<>(16, 0.75f, true);
+        Set<Integer> keys = small.keySet();
+        Collection<String> values = small.values();
+        for (int i = 0; i < 5; i++) {
+            small.put(i, "value" + i);
+        }
+
+        small.get(2);
+        assertEquals(List.of(0, 1, 3, 4, 2), new ArrayList<>(keys));
+        assertEquals(List.of("value0", "value1", "value3", "value4", "value2"), new ArrayList<>(values));
+
+        keys.remove(3);
+        assertEquals(List.of(0, 1, 4, 2), new ArrayList<>(keys));
+        assertEquals(Map.entry(0, "value0"), small.entrySet().iterator().next());
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        Iterator<Map.Entry<Integer, String>> iterator = map.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getKey() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(500_000, map.size());
+        int expected = 999_999;
+        for (Integer key : map.keySet()) {
+            assertEquals(expected, key);
+            expected -= 2;
+        }
+    }
+
+    @Test
+    public void testFailFastOnAccess() {
+        LinkedCustomHashMap<Integer, String> accessOrdered = new LinkedCustomHashMap<>(16, 0.75f, true);
+        for (int i = 0; i < 5; i++) {
+            accessOrdered.put(i, "value" + i);
+        }
+
+        Iterator<Integer> keys = accessOrdered.keySet().iterator();
+        keys.next();
+        accessOrdered.get(4);
+        keys.next();
+        accessOrdered.get(0);
+        assertThrows(ConcurrentModificationException.class, keys::next);
+    }
+
+    @Test
+    public void testParallelStreamKeepsOrder() {
+        List<Integer> keys = map.keySet().parallelStream().toList();
+        assertEquals(new ArrayList<>(map.keySet()), keys);
+        assertEquals(1_000_000, keys.get(0));
+        assertTrue(map.entrySet().spliterator().hasCharacteristics(Spliterator.ORDERED | Spliterator.SIZED));
+    }
+
+    @Test
+    public void testForEachKeepsOrder() {
+        List<Integer> keys = new ArrayList<>();
+        map.forEach((key, value) -> keys.add(key));
+        assertEquals(new ArrayList<>(map.keySet()), keys);
+
+        LinkedCustomHashMap<Integer, String> accessOrdered = new LinkedCustomHashMap<>(16, 0.75f, true);
+        for (int i = 0; i < 5; i++) {
+            accessOrdered.put(i, "value" + i);
+        }
+        accessOrdered.get(0);
+        accessOrdered.replaceAll((key, value) -> value.toUpperCase());
+
+        List<String> values = new ArrayList<>();
+        accessOrdered.forEachValue(values::add);
+        assertEquals(List.of("VALUE1", "VALUE2", "VALUE3", "VALUE4", "VALUE0"), values);
+    }
+
+    @Test
+    public void testComputeMethodsInAccessOrder() {
+        LinkedCustomHashMap<Integer, Integer> accessOrdered = new LinkedCustomHashMap<>(16, 0.75f, true);
+        for (int i = 0; i < 5; i++) {
+            accessOrdered.put(i, i);
+        }
+
+        accessOrdered.merge(0, 10, Integer::sum);
+        accessOrdered.computeIfAbsent(1, key -> -1);
+        accessOrdered.computeIfAbsent(5, key -> 5);
+        accessOrdered.compute(2, (key, value) -> null);
+        accessOrdered.getOrDefault(3, -1);
+
+        assertEquals(List.of(4, 0, 1, 5, 3), new ArrayList<>(accessOrdered.keySet()));
+        assertEquals(List.of(4, 10, 1, 5, 3), new ArrayList<>(accessOrdered.values()));
+    }
+
+    @Test
+    public void testNullKey() {
+        assertThrows(NullPointerException.class, () -> map.put(null, "value"));
+    }
+
+    record Collider(int id) {
+        @Override
+        public int hashCode() {
+            return id % 97;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.tatiSmol.LongLongMap;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongLongMapTest {
+    LongLongMap map;
+
+    @BeforeEach
+    public void setup() {
+        map = new LongLongMap();
+        for (long i = 1; i <= 1_000_000; i++) {
+            map.put(i << 32, i);
+        }
+    }
+
+    @Test
+    public void testGet() {
+        for (long i = 1; i <= 1_000_000; i++) {
+            assertEquals(i, map.get(i << 32));
+        }
+        assertEquals(0, map.get(1));
+        assertEquals(-1, map.getOrDefault(1, -1));
+        assertEquals(1_000_000, map.size());
+    }
+
+    @Test
+    public void testPutReplacesValue() {
+        assertEquals(7, map.put(7L << 32, 70));
+        assertEquals(70, map.get(7L << 32));
+        assertEquals(0, map.put(7, 7));
+        assertEquals(1_000_001, map.size());
+    }
+
+    @Test
+    public void testAddTo() {
+        for (long i = 1; i <= 1_000_000; i++) {
+            assertEquals(2 * i, map.addTo(i << 32, i));
+        }
+        assertEquals(5, map.addTo(0, 5));
+        assertEquals(8, map.addTo(0, 3));
+        assertEquals(-3, map.addTo(Long.MIN_VALUE, -3));
+        assertEquals(1_000_002, map.size());
+        assertEquals(8, map.get(0));
+    }
+
+    @Test
+    public void testRemove() {
+        for (long i = 1; i <= 1_000_000; i += 2) {
+            assertEquals(i, map.remove(i << 32));
+        }
+
+        for (long i = 1; i <= 1_000_000; i++) {
+            assertEquals(i % 2 == 1, !map.containsKey(i << 32));
+        }
+        assertEquals(0, map.remove(1L << 32));
+        assertEquals(500_000, map.size());
+    }
+
+    @Test
+    public void testCounterAgainstHashMap() {
+        LongLongMap counts = new LongLongMap(0);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(24);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(2_000) - 1_000L;
+            long increment = random.nextInt(10);
+            if (random.nextInt(4) == 0) {
+                Long removed = expected.remove(key);
+                assertEquals(removed == null ? 0 : removed, counts.remove(key));
+            } else {
+                assertEquals(expected.merge(key, increment, Long::sum), counts.addTo(key, increment));
+            }
+            assertEquals(expected.size(), counts.size());
+        }
+
+        for (long key = -1_000; key < 1_000; key++) {
+            assertEquals(expected.containsKey(key), counts.containsKey(key));
+            assertEquals(expected.getOrDefault(key, 0L), counts.get(key));
+        }
+    }
+
+    @Test
+    public void testCursor() {
+        LongLongMap.Cursor cursor = map.cursor();
+        int count = 0;
+        while (cursor.advance()) {
+            assertEquals(cursor.key() >>> 32, cursor.value());
+            if (cursor.value() % 3 == 0) {
+                cursor.remove();
+            } else {
+                cursor.setValue(-cursor.value());
+            }
+            count++;
+        }
+
+        assertEquals(1_000_000, count);
+        assertEquals(1_000_000 - 333_333, map.size());
+        for (long i = 1; i <= 1_000_000; i++) {
+            assertEquals(i % 3 == 0 ? 0 : -i, map.get(i << 32));
+        }
+        assertThrows(IllegalStateException.class, cursor::remove);
+    }
+
+    @Test
+    public void testForEachAndFailFast() {
+        long[] sum = new long[1];
+        map.forEach((key, value) -> sum[0] += value);
+        assertEquals(500_000_500_000L, sum[0]);
+
+        LongLongMap.Cursor cursor = map.cursor();
+        cursor.advance();
+        map.addTo(1L << 32, 1);
+        cursor.advance();
+        map.addTo(1, 1);
+        assertThrows(ConcurrentModificationException.class, cursor::advance);
+    }
+
+    @Test
+    public void testContainsValue() {
+        assertTrue(map.containsValue(1_000_000));
+        assertFalse(map.containsValue(0));
+        map.put(0, 0);
+        assertTrue(map.containsValue(0));
+    }
+}
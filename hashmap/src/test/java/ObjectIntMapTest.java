@@ -0,0 +1,129 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.tatiSmol.ObjectIntMap;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObjectIntMapTest {
+    ObjectIntMap<String> map;
+
+    @BeforeEach
+    public void setup() {
+        map = new ObjectIntMap<>();
+        for (int i = 1; i <= 1_000_000; i++) {
+            map.put("key" + i, i);
+        }
+    }
+
+    @Test
+    public void testGet() {
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertEquals(i, map.get("key" + i));
+        }
+        assertEquals(0, map.get("key0"));
+        assertEquals(0, map.get(null));
+        assertEquals(-1, map.getOrDefault("key0", -1));
+        assertEquals(1_000_000, map.size());
+    }
+
+    @Test
+    public void testAddTo() {
+        ObjectIntMap<String> words = new ObjectIntMap<>();
+        for (String word : "to be or not to be that is the question".split(" ")) {
+            words.addTo(word, 1);
+        }
+
+        assertEquals(8, words.size());
+        assertEquals(2, words.get("to"));
+        assertEquals(2, words.get("be"));
+        assertEquals(1, words.get("question"));
+        assertEquals(3, words.addTo("to", 1));
+    }
+
+    @Test
+    public void testRemove() {
+        for (int i = 1; i <= 1_000_000; i += 2) {
+            assertEquals(i, map.remove("key" + i));
+        }
+
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertEquals(i % 2 == 0, map.containsKey("key" + i));
+        }
+        assertEquals(0, map.remove("key1"));
+        assertEquals(500_000, map.size());
+    }
+
+    @Test
+    public void testShrinkOnRemove() {
+        for (int i = 1; i <= 999_990; i++) {
+            map.remove("key" + i);
+        }
+
+        assertEquals(10, map.size());
+        map.trimToSize();
+        for (int i = 999_991; i <= 1_000_000; i++) {
+            assertEquals(i, map.get("key" + i));
+        }
+    }
+
+    @Test
+    public void testCursor() {
+        ObjectIntMap<String>.Cursor cursor = map.cursor();
+        int count = 0;
+        while (cursor.advance()) {
+            assertEquals("key" + cursor.value(), cursor.key());
+            if (cursor.value() % 3 == 0) {
+                cursor.remove();
+            } else {
+                cursor.setValue(-cursor.value());
+            }
+            count++;
+        }
+
+        assertEquals(1_000_000, count);
+        assertEquals(1_000_000 - 333_333, map.size());
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertEquals(i % 3 == 0 ? 0 : -i, map.get("key" + i));
+        }
+    }
+
+    @Test
+    public void testFailFast() {
+        ObjectIntMap<String>.Cursor cursor = map.cursor();
+        cursor.advance();
+        map.put("key1", 1);
+        cursor.advance();
+        map.put("key0", 0);
+        assertThrows(ConcurrentModificationException.class, cursor::advance);
+        assertThrows(ConcurrentModificationException.class, () -> map.forEach((key, value) -> map.remove(key)));
+    }
+
+    @Test
+    public void testCollision() {
+        ObjectIntMap<Collider> colliding = new ObjectIntMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            colliding.put(new Collider(i), i);
+        }
+        for (int i = 0; i < 1_000; i += 2) {
+            assertEquals(i, colliding.remove(new Collider(i)));
+        }
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i % 2 == 0 ? -1 : i, colliding.getOrDefault(new Collider(i), -1));
+        }
+    }
+
+    @Test
+    public void testNullKey() {
+        assertThrows(NullPointerException.class, () -> map.put(null, 1));
+        assertThrows(NullPointerException.class, () -> map.addTo(null, 1));
+    }
+
+    record Collider(int id) {
+        @Override
+        public int hashCode() {
+            return id % 7;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.tatiSmol.Codec;
+import org.tatiSmol.OffHeapHashMap;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapHashMapTest {
+    OffHeapHashMap<Integer, String> map;
+
+    @BeforeEach
+    public void setup() {
+        map = new OffHeapHashMap<>(Codec.INT, Codec.STRING);
+        for (int i = 0; i < 1_000_000; i++) {
+            map.put(i, "v" + i);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        map.close();
+    }
+
+    @Test
+    public void testGet() {
+        for (int i = 0; i < 1_000_000; i++) {
+            assertEquals("v" + i, map.get(i));
+        }
+        assertNull(map.get(-1));
+        assertEquals("none", map.getOrDefault(-1, "none"));
+        assertEquals(1_000_000, map.size());
+    }
+
+    @Test
+    public void testPutReplacesValue() {
+        assertEquals("v7", map.put(7, "w7"));
+        assertEquals("w7", map.get(7));
+        assertEquals("w7", map.put(7, "a much longer value"));
+        assertEquals("a much longer value", map.get(7));
+        assertEquals("a much longer value", map.put(7, ""));
+        assertEquals("", map.get(7));
+        assertNull(map.put(-7, "v-7"));
+        assertEquals(1_000_001, map.size());
+    }
+
+    @Test
+    public void testRemove() {
+        for (int i = 0; i < 1_000_000; i += 2) {
+            assertEquals("v" + i, map.remove(i));
+        }
+
+        for (int i = 0; i < 1_000_000; i++) {
+            assertEquals(i % 2 == 1, map.containsKey(i));
+        }
+        assertNull(map.remove(0));
+        assertEquals(500_000, map.size());
+    }
+
+    @Test
+    public void testRemoveAllReleasesMemory() {
+        long before = map.offHeapBytes();
+        for (int i = 0; i < 1_000_000; i++) {
+            map.remove(i);
+        }
+
+        assertTrue(map.isEmpty());
+        assertTrue(map.offHeapBytes() < before / 10);
+        map.put(1, "v1");
+        assertEquals("v1", map.get(1));
+    }
+
+    @Test
+    public void testReplacingValuesCompactsRecords() {
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 1_000_000; i++) {
+                map.put(i, round % 2 == 0 ? "value " + i : "v" + i);
+            }
+        }
+
+        for (int i = 0; i < 1_000_000; i++) {
+            assertEquals("value " + i, map.get(i));
+        }
+        // Without compaction the six generations of records would take about 130 MB.
+        assertTrue(map.offHeapBytes() < 2_097_152L * 12 + 3L * 25 * 1_000_000);
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        OffHeapHashMap<String, Long> offHeap = new OffHeapHashMap<>(Codec.STRING, Codec.LONG, 0);
+        Map<String, Long> expected = new HashMap<>();
+        Random random = new Random(25);
+
+        for (int i = 0; i < 200_000; i++) {
+            String key = "k" + random.nextInt(2_000);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(key), offHeap.remove(key));
+            } else {
+                long value = random.nextLong();
+                assertEquals(expected.put(key, value), offHeap.put(key, value));
+            }
+            assertEquals(expected.size(), offHeap.size());
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            assertEquals(expected.get("k" + i), offHeap.get("k" + i));
+        }
+        offHeap.close();
+    }
+
+    @Test
+    public void testCustomCodecAndUnicodeKeys() {
+        Codec<int[]> intArrays = new Codec<>() {
+            @Override
+            public int encodedSize(int[] value) {
+                return value.length * Integer.BYTES;
+            }
+
+            @Override
+            public void encode(int[] value, ByteBuffer out) {
+                for (int v : value) {
+                    out.putInt(v);
+                }
+            }
+
+            @Override
+            public int[] decode(ByteBuffer in) {
+                int[] value = new int[in.remaining() / Integer.BYTES];
+                for (int i = 0; i < value.length; i++) {
+                    value[i] = in.getInt();
+                }
+                return value;
+            }
+        };
+
+        try (OffHeapHashMap<String, int[]> offHeap = new OffHeapHashMap<>(Codec.STRING, intArrays)) {
+            offHeap.put("ключ", new int[]{1, 2, 3});
+            offHeap.put("😀", new int[0]);
+            offHeap.put("x".repeat(3 << 20), new int[]{4});
+
+            assertArrayEquals(new int[]{1, 2, 3}, offHeap.get("ключ"));
+            assertArrayEquals(new int[0], offHeap.get("😀"));
+            assertArrayEquals(new int[]{4}, offHeap.get("x".repeat(3 << 20)));
+            assertNull(offHeap.get("x"));
+        }
+    }
+
+    @Test
+    public void testForEachAndFailFast() {
+        long[] sum = new long[1];
+        map.forEach((key, value) -> {
+            assertEquals("v" + key, value);
+            sum[0] += key;
+        });
+        assertEquals(499_999_500_000L, sum[0]);
+
+        assertThrows(ConcurrentModificationException.class, () -> map.forEach((key, value) -> map.remove(key)));
+    }
+
+    @Test
+    public void testClear() {
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(1));
+        map.put(1, "v1");
+        assertEquals("v1", map.get(1));
+    }
+
+    @Test
+    public void testClose() {
+        map.close();
+        assertTrue(map.isClosed());
+        assertEquals(0, map.size());
+        assertEquals(0, map.offHeapBytes());
+        assertThrows(IllegalStateException.class, () -> map.get(1));
+        assertThrows(IllegalStateException.class, () -> map.put(1, "v1"));
+        assertThrows(IllegalStateException.class, () -> map.forEach((key, value) -> {
+        }));
+        map.close();
+    }
+
+    @Test
+    public void testIllegalArguments() {
+        assertThrows(NullPointerException.class, () -> map.put(null, "v"));
+        assertThrows(NullPointerException.class, () -> map.put(1, null));
+        assertThrows(NullPointerException.class, () -> map.get(null));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapHashMap<>(Codec.INT, Codec.INT, -1));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapHashMap<>(Codec.INT, Codec.INT, 16, 1));
+    }
+}
@@ -0,0 +1,212 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.tatiSmol.RobinHoodHashMap;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RobinHoodHashMapTest {
+    RobinHoodHashMap<Integer, String> map;
+
+    @BeforeEach
+    public void setup() {
+        map = new RobinHoodHashMap<>();
+        for (int i = 1; i <= 1_000_000; i++) {
+            map.put(i, "value" + i);
+        }
+    }
+
+    @Test
+    public void testConstructorWithCollection() {
+        map.clear();
+        assertEquals(0, map.size());
+        assertTrue(map.isEmpty());
+
+        Map<Integer, String> anotherMap = new HashMap<>();
+        for (int i = 1; i <= 1_000_000; i++) {
+            anotherMap.put(i, "value" + i);
+        }
+
+        map = new RobinHoodHashMap<>(anotherMap);
+        assertEquals(anotherMap.size(), map.size());
+        assertEquals(anotherMap, map);
+    }
+
+    @Test
+    public void testGet() {
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertEquals("value" + i, map.get(i));
+        }
+        assertNull(map.get(0));
+        assertNull(map.get(null));
+    }
+
+    @Test
+    public void testPutReplacesValue() {
+        assertEquals("value7", map.put(7, "seven"));
+        assertEquals("seven", map.get(7));
+        assertEquals(1_000_000, map.size());
+    }
+
+    @Test
+    public void testRemove() {
+        for (int i = 1; i <= 1_000_000; i += 2) {
+            assertEquals("value" + i, map.remove(i));
+        }
+
+        for (int i = 1; i <= 1_000_000; i++) {
+            if (i % 2 == 1) {
+                assertNull(map.get(i));
+            } else {
+                assertEquals("value" + i, map.get(i));
+            }
+        }
+        assertEquals(500_000, map.size());
+    }
+
+    @Test
+    public void testContainsKey() {
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertTrue(map.containsKey(i));
+        }
+        assertFalse(map.containsKey(1_000_001));
+    }
+
+    @Test
+    public void testContainsValue() {
+        for (int i = 1; i <= 1_000_000; i += 20_000) {
+            assertTrue(map.containsValue("value" + i));
+        }
+        assertFalse(map.containsValue("value0"));
+    }
+
+    @Test
+    public void testKeySet() {
+        Set<Integer> keys = map.keySet();
+        assertTrue(keys.contains(10));
+        assertTrue(keys.contains(500_001));
+        assertEquals(1_000_000, keys.size());
+    }
+
+    @Test
+    public void testIterator() {
+        int count = 0;
+        for (Map.Entry<Integer, String> entry : map) {
+            assertEquals("value" + entry.getKey(), entry.getValue());
+            count++;
+        }
+        assertEquals(1_000_000, count);
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        Iterator<Map.Entry<Integer, String>> iterator = map.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, String> entry = iterator.next();
+            if (entry.getKey() % 3 == 0) {
+                iterator.remove();
+            }
+            count++;
+        }
+
+        assertEquals(1_000_000, count);
+        assertEquals(1_000_000 - 333_333, map.size());
+        for (int i = 1; i <= 1_000_000; i++) {
+            assertEquals(i % 3 != 0, map.containsKey(i));
+        }
+    }
+
+    @Test
+    public void testIteratorRemoveWrappedRuns() {
+        RobinHoodHashMap<Integer, Integer> small = new RobinHoodHashMap<>(16);
+        Random random = new Random(42);
+
+        for (int round = 0; round < 1_000; round++) {
+            small.clear();
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < 11; i++) {
+                int key = random.nextInt(1_000);
+                small.put(key, key);
+                expected.add(key);
+            }
+
+            Set<Integer> seen = new HashSet<>();
+            Iterator<Map.Entry<Integer, Integer>> iterator = small.iterator();
+            while (iterator.hasNext()) {
+                assertTrue(seen.add(iterator.next().getKey()));
+                iterator.remove();
+            }
+
+            assertEquals(expected, seen);
+            assertTrue(small.isEmpty());
+        }
+    }
+
+    @Test
+    public void testFailFastIterator() {
+        Iterator<Map.Entry<Integer, String>> iterator = map.iterator();
+        iterator.next();
+        map.put(0, "value0");
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    @Test
+    public void testEntrySetValue() {
+        for (Map.Entry<Integer, String> entry : map.entrySet()) {
+            entry.setValue("new" + entry.getKey());
+        }
+        assertEquals("new10", map.get(10));
+    }
+
+    @Test
+    public void testCollision() {
+        RobinHoodHashMap<String, Integer> strings = new RobinHoodHashMap<>();
+        String key1 = "FB";
+        String key2 = "Ea";
+
+        assertEquals(key1.hashCode(), key2.hashCode());
+
+        strings.put(key1, 1);
+        strings.put(key2, 2);
+
+        assertEquals(1, strings.get(key1));
+        assertEquals(2, strings.get(key2));
+        assertEquals(1, strings.remove(key1));
+        assertEquals(2, strings.get(key2));
+    }
+
+    @Test
+    public void testNullKey() {
+        assertThrows(NullPointerException.class, () -> map.put(null, "value"));
+    }
+
+    @Test
+    public void testProbeStatsAtHighLoad() {
+        RobinHoodHashMap<Integer, Integer> full = new RobinHoodHashMap<>(1 << 16, 0.9f);
+        int entries = (int) ((1 << 16) * 0.9f);
+        for (int i = 0; i < entries; i++) {
+            full.put(i * 7919, i);
+        }
+
+        RobinHoodHashMap.ProbeStats stats = full.probeStats();
+        assertEquals(entries, stats.size());
+        assertEquals(1 << 16, stats.capacity());
+        assertTrue(stats.mean() < 8, "mean probe length " + stats.mean());
+        assertTrue(stats.max() < 64, "max probe length " + stats.max());
+
+        for (int i = 0; i < entries; i++) {
+            assertEquals(i, full.get(i * 7919));
+            assertNull(full.get(i * 7919 + 1));
+        }
+    }
+
+    @Test
+    public void testProbeStatsEmpty() {
+        map.clear();
+        RobinHoodHashMap.ProbeStats stats = map.probeStats();
+        assertEquals(0, stats.size());
+        assertEquals(0, stats.max());
+    }
+}